@@ -0,0 +1,25 @@
+package nguyenduonghuy.usermanagement.benchmark;
+
+import java.time.LocalDateTime;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+
+final class BenchmarkFixtures {
+	static final String SECRET = "benchmark-secret-for-signing-jwt-tokens";
+	static final String USERNAME = "benchmark";
+
+	private BenchmarkFixtures() {
+	}
+
+	static UserPrincipal userPrincipal() {
+		User user = new User("Benchmark User", USERNAME, "benchmark@mail.com");
+		user.setId(1L);
+		user.setJoinDate(LocalDateTime.now());
+		user.setRole(Role.ROLE_SUPER_ADMIN.name());
+		user.setActive(true);
+		user.setNotLocked(true);
+		return new UserPrincipal(user);
+	}
+}
@@ -0,0 +1,88 @@
+package nguyenduonghuy.usermanagement.benchmark;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import nguyenduonghuy.usermanagement.filter.JwtAuthorizationFilter;
+import nguyenduonghuy.usermanagement.repository.RevokedTokenRepository;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.TokenRevocationService;
+import nguyenduonghuy.usermanagement.utils.JwtTokenProvider;
+
+/**
+ * Full per-request cost of {@link JwtAuthorizationFilter}, from reading the
+ * {@code Authorization} header to populating the security context.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthorizationFilterBenchmark {
+
+	@Param({ "0", "10000" })
+	private long cacheSize;
+
+	private JwtAuthorizationFilter jwtAuthorizationFilter;
+	private MockHttpServletRequest authenticatedRequest;
+	private MockHttpServletRequest anonymousRequest;
+	private MockHttpServletResponse response;
+
+	@Setup
+	public void setUp() {
+		JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(new SimpleMeterRegistry(), BenchmarkFixtures.SECRET, cacheSize, 300);
+		TokenRevocationService tokenRevocationService = new TokenRevocationService(Mockito.mock(RevokedTokenRepository.class),
+				Mockito.mock(UserRepository.class), 1000, 0.001, 10_000);
+		jwtAuthorizationFilter = new JwtAuthorizationFilter(jwtTokenProvider, tokenRevocationService, new SimpleMeterRegistry());
+		String token = jwtTokenProvider.generateJwtToken(BenchmarkFixtures.userPrincipal());
+		authenticatedRequest = new MockHttpServletRequest("GET", "/api/users");
+		authenticatedRequest.addHeader(AUTHORIZATION, TOKEN_PREFIX + token);
+		anonymousRequest = new MockHttpServletRequest("GET", "/api/users");
+		response = new MockHttpServletResponse();
+	}
+
+	@TearDown(Level.Invocation)
+	public void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Benchmark
+	public Authentication authenticatedRequest() throws ServletException, IOException {
+		jwtAuthorizationFilter.doFilter(authenticatedRequest, response, new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	@Benchmark
+	public Authentication anonymousRequest() throws ServletException, IOException {
+		jwtAuthorizationFilter.doFilter(anonymousRequest, response, new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+}
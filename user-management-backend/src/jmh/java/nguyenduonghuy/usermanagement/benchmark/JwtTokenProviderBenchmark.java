@@ -0,0 +1,69 @@
+package nguyenduonghuy.usermanagement.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.utils.JwtTokenProvider;
+
+/**
+ * Cost of signing and verifying tokens. {@code cacheSize = 0} disables the verified-token
+ * cache so every call pays the full HMAC and JSON decoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+	@Param({ "0", "10000" })
+	private long cacheSize;
+
+	private JwtTokenProvider jwtTokenProvider;
+	private UserPrincipal userPrincipal;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtTokenProvider = new JwtTokenProvider(new SimpleMeterRegistry(), BenchmarkFixtures.SECRET, cacheSize, 300);
+		userPrincipal = BenchmarkFixtures.userPrincipal();
+		token = jwtTokenProvider.generateJwtToken(userPrincipal);
+	}
+
+	@Benchmark
+	public String generateJwtToken() {
+		return jwtTokenProvider.generateJwtToken(userPrincipal);
+	}
+
+	@Benchmark
+	public String getSubject() {
+		return jwtTokenProvider.getSubject(token);
+	}
+
+	@Benchmark
+	public boolean isTokenValid() {
+		return jwtTokenProvider.isTokenValid(BenchmarkFixtures.USERNAME, token);
+	}
+
+	@Benchmark
+	public List<GrantedAuthority> getAuthorities() {
+		return jwtTokenProvider.getAuthorities(token);
+	}
+}
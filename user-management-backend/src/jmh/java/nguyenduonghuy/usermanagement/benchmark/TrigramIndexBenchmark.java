@@ -0,0 +1,57 @@
+package nguyenduonghuy.usermanagement.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nguyenduonghuy.usermanagement.utils.TrigramIndex;
+
+/**
+ * Search latency distribution of the user search index over a million synthetic users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TrigramIndexBenchmark {
+	private static final String[] NAMES = { "nguyen", "tran", "le", "pham", "hoang", "huynh", "phan", "vu", "vo", "dang",
+			"bui", "do", "ho", "ngo", "duong", "ly", "anna", "john", "maria", "peter" };
+
+	@Param({ "1000000" })
+	public int users;
+
+	@Param({ "huy", "duong123", "mail.com" })
+	public String query;
+
+	private TrigramIndex index;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		index = new TrigramIndex();
+		for (int id = 0; id < users; id++) {
+			String first = NAMES[random.nextInt(NAMES.length)];
+			String last = NAMES[random.nextInt(NAMES.length)];
+			String username = first + last + random.nextInt(1000);
+			index.put(id, username, username + "@mail.com", first + " " + last);
+		}
+	}
+
+	@Benchmark
+	public long[] search() {
+		return index.search(query, 20);
+	}
+}
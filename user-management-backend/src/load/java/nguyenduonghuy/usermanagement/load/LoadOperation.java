@@ -0,0 +1,85 @@
+package nguyenduonghuy.usermanagement.load;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+import org.springframework.http.MediaType;
+
+/**
+ * The requests a workload is mixed from. Seeded users are picked uniformly at random; register
+ * always creates a new user.
+ */
+enum LoadOperation {
+	LOGIN("login") {
+		@Override
+		HttpRequest request(LoadTarget target, SplittableRandom random) {
+			String body = "{\"username\":\"" + LoadTarget.username(random.nextInt(target.getSeedUsers()))
+					+ "\",\"password\":\"" + LoadTarget.PASSWORD + "\"}";
+			return json(target, "api/users/login").POST(BodyPublishers.ofString(body)).build();
+		}
+	},
+	REGISTER("register") {
+		@Override
+		HttpRequest request(LoadTarget target, SplittableRandom random) {
+			String username = target.nextNewUsername();
+			String body = "{\"fullname\":\"Load New\",\"username\":\"" + username + "\",\"email\":\"" + LoadTarget.email(username) + "\"}";
+			return json(target, "api/users/register").POST(BodyPublishers.ofString(body)).build();
+		}
+	},
+	LIST("list") {
+		@Override
+		HttpRequest request(LoadTarget target, SplittableRandom random) {
+			return authorized(target, "api/users?size=20").GET().build();
+		}
+	},
+	FIND("find") {
+		@Override
+		HttpRequest request(LoadTarget target, SplittableRandom random) {
+			return authorized(target, "api/users/find/" + LoadTarget.username(random.nextInt(target.getSeedUsers()))).GET().build();
+		}
+	},
+	AVATAR("avatar") {
+		@Override
+		HttpRequest request(LoadTarget target, SplittableRandom random) {
+			String username = LoadTarget.username(random.nextInt(target.getAvatarUsers()));
+			return authorized(target, "api/users/image/" + username + "/" + username + ".jpg").GET().build();
+		}
+	};
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+	private final String name;
+
+	LoadOperation(String name) {
+		this.name = name;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	abstract HttpRequest request(LoadTarget target, SplittableRandom random);
+
+	static LoadOperation from(String name) {
+		for (LoadOperation operation : values()) {
+			if (operation.name.equalsIgnoreCase(name)) {
+				return operation;
+			}
+		}
+		throw new IllegalArgumentException("Unknown operation: " + name);
+	}
+
+	private static HttpRequest.Builder json(LoadTarget target, String path) {
+		return HttpRequest.newBuilder(target.uri(path)).timeout(REQUEST_TIMEOUT).header(CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+	}
+
+	private static HttpRequest.Builder authorized(LoadTarget target, String path) {
+		return HttpRequest.newBuilder(target.uri(path)).timeout(REQUEST_TIMEOUT).header(AUTHORIZATION, TOKEN_PREFIX + target.getToken());
+	}
+}
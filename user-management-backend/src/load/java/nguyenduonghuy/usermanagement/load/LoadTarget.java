@@ -0,0 +1,53 @@
+package nguyenduonghuy.usermanagement.load;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The running application as seen by the workload: where it listens, the seeded users and the
+ * bearer token requests are sent with.
+ */
+final class LoadTarget {
+	static final String PASSWORD = "load-test-password";
+
+	private final URI baseUri;
+	private final String token;
+	private final int seedUsers;
+	private final int avatarUsers;
+	private final AtomicLong registered = new AtomicLong();
+
+	LoadTarget(URI baseUri, String token, int seedUsers, int avatarUsers) {
+		this.baseUri = baseUri;
+		this.token = token;
+		this.seedUsers = seedUsers;
+		this.avatarUsers = avatarUsers;
+	}
+
+	static String username(long index) {
+		return "load-user-" + index;
+	}
+
+	static String email(String username) {
+		return username + "@load.test";
+	}
+
+	URI uri(String path) {
+		return baseUri.resolve(path);
+	}
+
+	String getToken() {
+		return token;
+	}
+
+	int getSeedUsers() {
+		return seedUsers;
+	}
+
+	int getAvatarUsers() {
+		return avatarUsers;
+	}
+
+	String nextNewUsername() {
+		return "load-new-" + registered.incrementAndGet();
+	}
+}
@@ -0,0 +1,296 @@
+package nguyenduonghuy.usermanagement.load;
+
+import static nguyenduonghuy.usermanagement.constant.FileConstant.DOT;
+import static nguyenduonghuy.usermanagement.constant.FileConstant.JPG_EXTENSION;
+import static nguyenduonghuy.usermanagement.constant.FileConstant.USER_FOLDER;
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.JWT_TOKEN_HEADER;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.FileSystemUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import nguyenduonghuy.usermanagement.UserManagementBackendApplication;
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+
+/**
+ * In-JVM load test: boots the application on a random port against an in-memory H2 database and
+ * a local {@link SmtpSink}, seeds users and avatar files, then drives a weighted mix of
+ * {@link LoadOperation}s over loopback HTTP.
+ * <p>
+ * The closed model runs {@code concurrency} workers back to back. The open model issues requests
+ * at a fixed {@code rate} and measures each latency from its intended start, so a stalled server
+ * shows up as latency rather than as a silently lower request rate (no coordinated omission).
+ * Requests started during {@code warmup} are not recorded. The JSON report holds the settings,
+ * throughput, error rates and latency percentiles per operation and in total, plus the compressed
+ * HDR histograms.
+ * <p>
+ * {@code mvn -P loadtest test-compile exec:exec -Dload.model=open -Dload.rate=200}
+ */
+public final class LoadTest {
+	private static final int SEED_CHUNK_SIZE = 500;
+	private static final int AVATAR_BYTES = 16 * 1024;
+	private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+	private final LoadTestConfig config;
+	private final HttpClient httpClient;
+	private final Map<LoadOperation, OperationStats> stats = new EnumMap<>(LoadOperation.class);
+	private final LoadOperation[] operations;
+	private final int[] cumulativeWeights;
+
+	private LoadTest(LoadTestConfig config) {
+		this.config = config;
+		this.httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+		Map<LoadOperation, Integer> mix = config.mix();
+		this.operations = mix.keySet().toArray(new LoadOperation[0]);
+		this.cumulativeWeights = new int[operations.length];
+		int total = 0;
+		for (int i = 0; i < operations.length; i++) {
+			total += mix.get(operations[i]);
+			cumulativeWeights[i] = total;
+			stats.put(operations[i], new OperationStats());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfig config = LoadTestConfig.parse(args);
+		// devtools would relaunch main() in a restart class loader with Spring's arguments
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		Path home = Files.createTempDirectory("load-test");
+		// avatars live under user.home, keep them out of the real one
+		System.setProperty("user.home", home.toString());
+		try (SmtpSink smtpSink = new SmtpSink();
+				ConfigurableApplicationContext context = start(config, smtpSink)) {
+			LoadTest loadTest = new LoadTest(config);
+			LoadTarget target = loadTest.seed(context);
+			Instant startedAt = Instant.now();
+			if (config.model() == LoadTestConfig.Model.CLOSED) {
+				loadTest.runClosed(target);
+			} else {
+				loadTest.runOpen(target);
+			}
+			loadTest.report(startedAt, smtpSink.getMessages());
+		} finally {
+			FileSystemUtils.deleteRecursively(home);
+		}
+	}
+
+	private static ConfigurableApplicationContext start(LoadTestConfig config, SmtpSink smtpSink) {
+		return new SpringApplicationBuilder(UserManagementBackendApplication.class)
+				.bannerMode(Banner.Mode.OFF)
+				.run("--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:load;MODE=MySQL;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=sa",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.jpa.hibernate.ddl-auto=create-drop",
+						"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.properties.hibernate.generate_statistics=false",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN",
+						"--password-hashing.strength=" + config.bcryptStrength(),
+						"--user.last-login.flush-interval-ms=5000",
+						"--user.events.relay-interval-ms=1000",
+						"--email.smtp.protocol=smtp",
+						"--email.smtp.host=127.0.0.1",
+						"--email.smtp.port=" + smtpSink.getPort(),
+						"--email.smtp.starttls=false");
+	}
+
+	/**
+	 * Seeds every user with the same password hash so seeding does not pay for one bcrypt per
+	 * user. User 0 is a super admin whose token the reads are sent with.
+	 */
+	private LoadTarget seed(ConfigurableApplicationContext context) throws IOException, InterruptedException {
+		UserRepository userRepository = context.getBean(UserRepository.class);
+		String password = context.getBean(PasswordEncoder.class).encode(LoadTarget.PASSWORD);
+		List<User> users = new ArrayList<>(SEED_CHUNK_SIZE);
+		for (int i = 0; i < config.seedUsers(); i++) {
+			String username = LoadTarget.username(i);
+			User user = new User("Load User " + i, username, LoadTarget.email(username));
+			user.setPassword(password);
+			user.setRole(i == 0 ? Role.ROLE_SUPER_ADMIN.name() : Role.ROLE_USER.name());
+			user.setActive(true);
+			user.setNotLocked(true);
+			users.add(user);
+			if (users.size() == SEED_CHUNK_SIZE) {
+				userRepository.saveAll(users);
+				users.clear();
+			}
+		}
+		userRepository.saveAll(users);
+		byte[] avatar = new byte[AVATAR_BYTES];
+		new Random(config.seed()).nextBytes(avatar);
+		for (int i = 0; i < config.avatarUsers(); i++) {
+			String username = LoadTarget.username(i);
+			Path folder = Files.createDirectories(Paths.get(USER_FOLDER + username));
+			Files.write(folder.resolve(username + DOT + JPG_EXTENSION), avatar);
+		}
+		URI baseUri = URI.create("http://127.0.0.1:" + context.getEnvironment().getRequiredProperty("local.server.port") + "/");
+		LoadTarget anonymous = new LoadTarget(baseUri, null, 1, 1);
+		HttpResponse<Void> login = httpClient.send(LoadOperation.LOGIN.request(anonymous, new SplittableRandom()), BodyHandlers.discarding());
+		String token = login.headers().firstValue(JWT_TOKEN_HEADER)
+				.orElseThrow(() -> new IllegalStateException("Seeded admin could not log in: " + login.statusCode()));
+		return new LoadTarget(baseUri, token, config.seedUsers(), Math.max(1, config.avatarUsers()));
+	}
+
+	private void runClosed(LoadTarget target) throws InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(config.concurrency());
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+		for (int worker = 0; worker < config.concurrency(); worker++) {
+			SplittableRandom random = new SplittableRandom(config.seed() + worker);
+			workers.execute(() -> {
+				long begin;
+				while ((begin = System.nanoTime()) < end) {
+					LoadOperation operation = pick(random);
+					HttpRequest request = operation.request(target, random);
+					int status = -1;
+					Throwable error = null;
+					try {
+						status = httpClient.send(request, BodyHandlers.discarding()).statusCode();
+					} catch (IOException e) {
+						error = e;
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					if (begin >= measureFrom) {
+						record(operation, System.nanoTime() - begin, status, error);
+					}
+					if (config.thinkTimeMillis() > 0) {
+						LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(config.thinkTimeMillis()));
+					}
+				}
+			});
+		}
+		workers.shutdown();
+		workers.awaitTermination(config.warmupSeconds() + config.durationSeconds() + DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private void runOpen(LoadTarget target) throws InterruptedException {
+		Semaphore inFlight = new Semaphore(config.maxInFlight());
+		SplittableRandom random = new SplittableRandom(config.seed());
+		long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, config.rate());
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+		for (long arrival = 0;; arrival++) {
+			long intended = start + arrival * interval;
+			if (intended >= end) {
+				break;
+			}
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			LoadOperation operation = pick(random);
+			HttpRequest request = operation.request(target, random);
+			boolean measured = intended >= measureFrom;
+			if (!inFlight.tryAcquire()) {
+				if (measured) {
+					stats.get(operation).drop();
+				}
+				continue;
+			}
+			httpClient.sendAsync(request, BodyHandlers.discarding()).whenComplete((response, error) -> {
+				if (measured) {
+					record(operation, System.nanoTime() - intended, response == null ? -1 : response.statusCode(), error);
+				}
+				inFlight.release();
+			});
+		}
+		inFlight.tryAcquire(config.maxInFlight(), DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private LoadOperation pick(SplittableRandom random) {
+		int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+		return operations[operations.length - 1];
+	}
+
+	private void record(LoadOperation operation, long latencyNanos, int status, Throwable error) {
+		if (error != null) {
+			stats.get(operation).record(latencyNanos, error.getClass().getSimpleName(), false);
+		} else {
+			// 304 from a conditional read is a success too
+			stats.get(operation).record(latencyNanos, String.valueOf(status), status < 400);
+		}
+	}
+
+	private void report(Instant startedAt, long smtpMessages) throws IOException {
+		double seconds = config.durationSeconds();
+		Histogram total = new Histogram(3);
+		long requests = 0;
+		long errors = 0;
+		Map<String, Object> operationReports = new LinkedHashMap<>();
+		for (Map.Entry<LoadOperation, OperationStats> entry : stats.entrySet()) {
+			OperationStats operationStats = entry.getValue();
+			total.add(operationStats.getHistogram());
+			requests += operationStats.getRequests();
+			errors += operationStats.getErrors();
+			operationReports.put(entry.getKey().getName(), operationStats.toMap(seconds));
+		}
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("startedAt", startedAt.toString());
+		report.put("javaVersion", System.getProperty("java.version"));
+		report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+		report.put("config", config.toMap());
+		report.put("total", OperationStats.toMap(total, requests, errors, null, seconds));
+		report.put("operations", operationReports);
+		report.put("smtpMessages", smtpMessages);
+		Path file = config.report().toAbsolutePath();
+		Files.createDirectories(file.getParent());
+		new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+
+		System.out.printf("%n%-10s %10s %10s %8s %10s %10s %10s%n", "operation", "requests", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+		for (Map.Entry<LoadOperation, OperationStats> entry : stats.entrySet()) {
+			print(entry.getKey().getName(), entry.getValue().getHistogram(), entry.getValue().getRequests(), entry.getValue().getErrors(), seconds);
+		}
+		print("total", total, requests, errors, seconds);
+		System.out.println("Report written to " + file);
+	}
+
+	private static void print(String name, Histogram histogram, long requests, long errors, double seconds) {
+		System.out.printf("%-10s %10d %10.1f %8d %10.2f %10.2f %10.2f%n", name, requests, requests / seconds, errors,
+				histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0);
+	}
+}
@@ -0,0 +1,143 @@
+package nguyenduonghuy.usermanagement.load;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of one load test run, read from {@code key=value} arguments. Every key has a default,
+ * so a bare run is a short closed-model smoke test; the same arguments and seed replay the same
+ * request sequence per worker.
+ */
+final class LoadTestConfig {
+
+	enum Model {
+		/** A fixed number of workers, each sending its next request when the previous one returns. */
+		CLOSED,
+		/** Requests arrive at a fixed rate whether or not earlier ones have returned. */
+		OPEN
+	}
+
+	private final Map<String, String> values;
+
+	private LoadTestConfig(Map<String, String> values) {
+		this.values = values;
+	}
+
+	static LoadTestConfig parse(String[] args) {
+		Map<String, String> values = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (separator <= 0) {
+				throw new IllegalArgumentException("Expected key=value but got: " + arg);
+			}
+			String value = arg.substring(separator + 1).trim();
+			if (!value.isEmpty()) {
+				values.put(arg.substring(0, separator).trim(), value);
+			}
+		}
+		return new LoadTestConfig(values);
+	}
+
+	Model model() {
+		return Model.valueOf(get("model", "closed").toUpperCase());
+	}
+
+	/** Workers of the closed model. */
+	int concurrency() {
+		return getInt("concurrency", 16);
+	}
+
+	/** Requests per second of the open model. */
+	int rate() {
+		return getInt("rate", 100);
+	}
+
+	/** Requests of the open model allowed in flight before new arrivals are dropped. */
+	int maxInFlight() {
+		return getInt("max-in-flight", 1024);
+	}
+
+	int warmupSeconds() {
+		return getInt("warmup", 10);
+	}
+
+	int durationSeconds() {
+		return getInt("duration", 60);
+	}
+
+	long thinkTimeMillis() {
+		return getInt("think-time-ms", 0);
+	}
+
+	int seedUsers() {
+		return getInt("users", 1000);
+	}
+
+	int avatarUsers() {
+		return Math.min(getInt("avatars", 100), seedUsers());
+	}
+
+	int bcryptStrength() {
+		return getInt("bcrypt-strength", 10);
+	}
+
+	long seed() {
+		return Long.parseLong(get("seed", "42"));
+	}
+
+	Path report() {
+		return Paths.get(get("report", "target/load-report.json"));
+	}
+
+	/**
+	 * Relative weights per operation, e.g. {@code login:20,register:5,list:25,find:40,avatar:10}.
+	 */
+	Map<LoadOperation, Integer> mix() {
+		Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+		for (String entry : get("mix", "login:20,register:5,list:25,find:40,avatar:10").split(",")) {
+			String[] parts = entry.trim().split(":");
+			int weight = Integer.parseInt(parts[1].trim());
+			if (weight > 0) {
+				mix.put(LoadOperation.from(parts[0].trim()), weight);
+			}
+		}
+		if (mix.isEmpty()) {
+			throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+		}
+		return mix;
+	}
+
+	Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("model", model().name().toLowerCase());
+		if (model() == Model.CLOSED) {
+			map.put("concurrency", concurrency());
+			map.put("thinkTimeMillis", thinkTimeMillis());
+		} else {
+			map.put("rate", rate());
+			map.put("maxInFlight", maxInFlight());
+		}
+		map.put("warmupSeconds", warmupSeconds());
+		map.put("durationSeconds", durationSeconds());
+		Map<String, Integer> mix = new LinkedHashMap<>();
+		mix().forEach((operation, weight) -> mix.put(operation.getName(), weight));
+		map.put("mix", mix);
+		map.put("seedUsers", seedUsers());
+		map.put("avatarUsers", avatarUsers());
+		map.put("bcryptStrength", bcryptStrength());
+		map.put("seed", seed());
+		return map;
+	}
+
+	private String get(String key, String defaultValue) {
+		return values.getOrDefault(key, defaultValue);
+	}
+
+	private int getInt(String key, int defaultValue) {
+		return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+	}
+}
@@ -0,0 +1,106 @@
+package nguyenduonghuy.usermanagement.load;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency and outcome counts of one operation during the measured window. Latencies are kept in
+ * microseconds in an HDR histogram, which is also written to the report in its compressed form
+ * so runs of different builds can be merged or compared point by point.
+ */
+final class OperationStats {
+	private static final int SIGNIFICANT_DIGITS = 3;
+	private static final double[] PERCENTILES = { 50, 90, 95, 99, 99.9, 99.99 };
+	private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p95", "p99", "p99_9", "p99_99" };
+	static final String DROPPED = "dropped";
+
+	private final Histogram histogram = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+	void record(long latencyNanos, String outcome, boolean success) {
+		histogram.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+		count(outcome, success);
+	}
+
+	/**
+	 * An open-model arrival that was never sent because too many requests were in flight. It is an
+	 * error, but has no latency to record.
+	 */
+	void drop() {
+		count(DROPPED, false);
+	}
+
+	long getRequests() {
+		return requests.sum();
+	}
+
+	long getErrors() {
+		return errors.sum();
+	}
+
+	Histogram getHistogram() {
+		return histogram;
+	}
+
+	static Map<String, Object> toMap(Histogram histogram, long requests, long errors, Map<String, Long> outcomes, double seconds) {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("requests", requests);
+		map.put("errors", errors);
+		map.put("errorRate", requests == 0 ? 0.0 : (double) errors / requests);
+		map.put("throughputPerSecond", requests / seconds);
+		Map<String, Object> latency = new LinkedHashMap<>();
+		latency.put("min", millis(histogram.getMinValue()));
+		latency.put("mean", histogram.getMean() / 1000.0);
+		for (int i = 0; i < PERCENTILES.length; i++) {
+			latency.put(PERCENTILE_NAMES[i], millis(histogram.getValueAtPercentile(PERCENTILES[i])));
+		}
+		latency.put("max", millis(histogram.getMaxValue()));
+		map.put("latencyMillis", latency);
+		if (outcomes != null) {
+			map.put("outcomes", outcomes);
+		}
+		map.put("histogram", encode(histogram));
+		return map;
+	}
+
+	Map<String, Object> toMap(double seconds) {
+		Map<String, Long> counts = new TreeMap<>();
+		outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+		return toMap(histogram, getRequests(), getErrors(), counts, seconds);
+	}
+
+	private void count(String outcome, boolean success) {
+		requests.increment();
+		outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+		if (!success) {
+			errors.increment();
+		}
+	}
+
+	private static double millis(long micros) {
+		return micros / 1000.0;
+	}
+
+	/**
+	 * Base64 of the deflate-compressed histogram, readable with
+	 * {@code Histogram.decodeFromCompressedByteBuffer}.
+	 */
+	private static String encode(Histogram histogram) {
+		ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+		int length = histogram.encodeIntoCompressedByteBuffer(buffer, Deflater.BEST_COMPRESSION);
+		return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+	}
+}
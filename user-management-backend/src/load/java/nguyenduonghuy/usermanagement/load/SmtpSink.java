@@ -0,0 +1,101 @@
+package nguyenduonghuy.usermanagement.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the SMTP relay. It speaks just enough plain SMTP for JavaMail to deliver a
+ * message, without AUTH or STARTTLS, and throws the message away. Register calls therefore pay
+ * for a real SMTP conversation over loopback instead of failing or reaching Gmail.
+ */
+final class SmtpSink implements AutoCloseable {
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "smtp-sink");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final AtomicLong messages = new AtomicLong();
+
+	SmtpSink() throws IOException {
+		this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+		executor.execute(this::accept);
+	}
+
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	long getMessages() {
+		return messages.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		executor.shutdownNow();
+	}
+
+	private void accept() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				executor.execute(() -> converse(socket));
+			} catch (IOException e) {
+				// closed
+			}
+		}
+	}
+
+	private void converse(Socket socket) {
+		try (Socket client = socket;
+				BufferedReader reader = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+				Writer writer = new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII)) {
+			reply(writer, "220 smtp-sink ready");
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String command = line.length() < 4 ? line.toUpperCase(Locale.ROOT) : line.substring(0, 4).toUpperCase(Locale.ROOT);
+				switch (command) {
+				case "EHLO":
+				case "HELO":
+					reply(writer, "250 smtp-sink");
+					break;
+				case "DATA":
+					reply(writer, "354 end data with <CR><LF>.<CR><LF>");
+					while ((line = reader.readLine()) != null && !line.equals(".")) {
+						// discard the message body
+					}
+					messages.incrementAndGet();
+					reply(writer, "250 queued");
+					break;
+				case "QUIT":
+					reply(writer, "221 bye");
+					return;
+				default:
+					// MAIL, RCPT, RSET and NOOP are all accepted as-is
+					reply(writer, "250 ok");
+				}
+			}
+		} catch (IOException e) {
+			// client went away
+		}
+	}
+
+	private static void reply(Writer writer, String line) throws IOException {
+		writer.write(line);
+		writer.write("\r\n");
+		writer.flush();
+	}
+}
@@ -14,7 +14,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import nguyenduonghuy.usermanagement.filter.JwtAccessDeniedHandler;
@@ -30,24 +30,24 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     private JwtAccessDeniedHandler jwtAccessDeniedHandler;
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private UserDetailsService userDetailsService;
-    private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private PasswordEncoder passwordEncoder;
     
     @Autowired
 	public SecurityConfiguration(JwtAuthorizationFilter jwtAuthorizationFilter,
 			JwtAccessDeniedHandler jwtAccessDeniedHandler, 
 			JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
 			@Qualifier("userDetailsService") UserDetailsService userDetailsService, 
-			BCryptPasswordEncoder bCryptPasswordEncoder) {
+			PasswordEncoder passwordEncoder) {
 		this.jwtAuthorizationFilter = jwtAuthorizationFilter;
 		this.jwtAccessDeniedHandler = jwtAccessDeniedHandler;
 		this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
 		this.userDetailsService = userDetailsService;
-		this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+		this.passwordEncoder = passwordEncoder;
 	}
     
     @Override
     protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-    	auth.userDetailsService(userDetailsService).passwordEncoder(bCryptPasswordEncoder);
+    	auth.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder);
     }
     
     @Override
@@ -14,4 +14,11 @@ public class EmailConstant {
     public static final int DEFAULT_PORT = 465;
     public static final String SMTP_STARTTLS_ENABLE = "mail.smtp.starttls.enable";
     public static final String SMTP_STARTTLS_REQUIRED = "mail.smtp.starttls.required";
+    public static final int EMAIL_QUEUE_CAPACITY = 10_000;
+    public static final int EMAIL_QUEUE_THREADS = 2;
+    public static final int EMAIL_MAX_ATTEMPTS = 3;
+    public static final long EMAIL_RETRY_DELAY_MS = 1_000;
+    public static final long EMAIL_QUEUE_SHUTDOWN_SECONDS = 10;
+    public static final String EMAIL_QUEUE_FULL = "Email queue is full, dropped new password email to: ";
+    public static final String EMAIL_SEND_FAILED = "Failed to send new password email to: ";
 }
@@ -8,11 +8,36 @@ public class SecurityConstant {
 	public static final String TOKEN_PREFIX = "Bearer ";
 	public static final String JWT_TOKEN_HEADER = "Jwt-Token";
 	public static final String TOKEN_CANNOT_BE_VERIFIED = "Token cannot be verified";
+	public static final String BEARER_TOKEN_REQUIRED = "The Authorization header must carry a Bearer token";
+	public static final long TOKEN_CACHE_MAXIMUM_SIZE = 10_000;
+	public static final long TOKEN_CACHE_EXPIRE_AFTER_WRITE_SECONDS = 300; // 5 minutes
+	public static final long REVOCATION_EXPECTED_INSERTIONS = 100_000;
+	public static final double REVOCATION_FALSE_POSITIVE_PROBABILITY = 0.001;
+	public static final long REVOCATION_PURGE_INTERVAL_MS = 3_600_000; // 1 hour
+	public static final long REVOCATION_REFRESH_INTERVAL_MS = 5_000;
+	public static final long REVOCATION_REFRESH_OVERLAP_MS = 10_000;
+	public static final String TOKEN_REVOKED = "Revoked token: ";
+	public static final String TOKEN_WITHOUT_ID_CANNOT_BE_REVOKED = "Token has no id and cannot be revoked";
+	public static final String EXPIRED_REVOKED_TOKENS_PURGED = "Purged expired revoked tokens: ";
+	public static final String USER_TOKENS_REVOKED = "Revoked tokens issued until now to user: ";
 	public static final String NGUYEN_DUONG_HUY = "Nguyen Duong Huy";
 	public static final String ADMINISTRATION = "User Management Portal";
 	public static final String AUTHORITIES = "authorities";
+	public static final String PERMISSIONS = "prm";
 	public static final String FORBIDEN_MESSAGE = "You need to login to access this page";
 	public static final String ACCESS_DENIED_MESSAGE = "You do not have permission to access this page";
+	public static final int PASSWORD_HASHING_STRENGTH = 10;
+	public static final int PASSWORD_HASHING_QUEUE_CAPACITY = 64;
+	public static final String PASSWORD_HASHING_UNAVAILABLE = "Server is busy, please try again later";
+	public static final long LOGIN_ATTEMPT_WINDOW_MINUTES = 15;
+	public static final int LOGIN_ATTEMPT_BUCKETS = 15;
+	public static final int LOGIN_ATTEMPT_MAX_PER_USERNAME = 5;
+	public static final int LOGIN_ATTEMPT_USERNAME_CAPACITY = 1 << 18;
+	public static final int LOGIN_ATTEMPT_MAX_PER_IP_ADDRESS = 50;
+	public static final int LOGIN_ATTEMPT_IP_ADDRESS_CAPACITY = 1 << 18;
+	public static final long LOGIN_ATTEMPT_SYNC_INTERVAL_MS = 1_000;
+	public static final String LOGIN_ATTEMPT_SYNC_FAILED = "Could not synchronize login attempts, pending keys: ";
+	public static final String TOO_MANY_LOGIN_ATTEMPTS = "Too many failed login attempts from this address. Please try again later";
 	public static final String OPTIONS_HTTP_METHOD = "OPTIONS";
 //	public static final List<String> PUBLIC_URL = Arrays.asList("/api/users/login", "/api/users/register", "/api/users/reset-password/**", "/api/users/image/**");
 	public static final List<String> PUBLIC_URL = Arrays.asList("**");
@@ -7,4 +7,57 @@ public class UserServiceImplConstant {
     public static final String NO_USER_FOUND_BY_USERNAME = "No user found by username: ";
     public static final String NO_USER_FOUND_BY_EMAIL = "No user found for email: ";
     public static final String FOUND_USER_BY_USERNAME = "Returning found user by username: ";
+    public static final String PASSWORD_REHASHED = "Rehashed password with the configured cost for user: ";
+    public static final String LAST_LOGIN_FLUSH_FAILED = "Failed to flush last login dates, pending updates: ";
+    public static final long LAST_LOGIN_FLUSH_INTERVAL_MS = 5_000;
+    public static final int LAST_LOGIN_MAX_PENDING = 10_000;
+    public static final int LAST_LOGIN_BATCH_SIZE = 500;
+    public static final long LAST_LOGIN_SHUTDOWN_SECONDS = 10;
+    public static final int USER_PAGE_DEFAULT_SIZE = 20;
+    public static final int USER_PAGE_MAX_SIZE = 100;
+    public static final String INVALID_USER_CURSOR = "Invalid page cursor";
+    public static final String INVALID_USER_SORT = "Unsupported sort: ";
+    public static final int USER_EXPORT_FETCH_SIZE = 1_000;
+    public static final int USER_EXPORT_FLUSH_ROWS = 500;
+    public static final long USER_EXPORT_TIMEOUT_MS = 3_600_000;
+    public static final String USER_EXPORT_FILE_NAME = "users.";
+    public static final String UNSUPPORTED_EXPORT_FORMAT = "Unsupported export format: ";
+    public static final int USER_SEARCH_DEFAULT_LIMIT = 20;
+    public static final int USER_SEARCH_MAX_LIMIT = 100;
+    public static final String SEARCH_QUERY_TOO_SHORT = "Search query must be at least 3 characters";
+    public static final String USER_SEARCH_INDEX_BUILT = "Built user search index, users: ";
+    public static final long USER_CACHE_MAXIMUM_SIZE = 10_000;
+    public static final long USER_CACHE_EXPIRE_AFTER_WRITE_SECONDS = 60;
+    public static final String MIGRATION_APPLIED = "Applied migration ";
+    public static final String MIGRATION_APPLIED_ELSEWHERE = "Migration already applied by another node ";
+    public static final int USER_IMPORT_CHUNK_SIZE = 500;
+    public static final int USER_IMPORT_MAX_ROWS = 100_000;
+    public static final String UNKNOWN_ROLE = "Unknown role: ";
+    public static final String USER_IMPORT_FINISHED = "Imported users, created: ";
+    public static final long USER_ID_NODE_UNSET = -1;
+    public static final String USER_ID_NODE_ID_REQUIRED = "user.id.node-id is not set, give every node its own id between 0 and 1023";
+    public static final String USER_ID_NODE_ID_OUT_OF_RANGE = "user.id.node-id must be between 0 and 1023: ";
+    public static final int USER_BULK_CHUNK_SIZE = 500;
+    public static final String UNSUPPORTED_BULK_ACTION = "Unsupported bulk action: ";
+    public static final String BULK_TARGET_REQUIRED = "Bulk request needs ids or a non-empty filter";
+    public static final String BULK_ROLE_REQUIRED = "Bulk role change needs a valid role";
+    public static final String USER_BULK_APPLIED = "Applied bulk action ";
+    public static final long USER_REAPER_INTERVAL_MS = 60_000;
+    public static final long USER_REAPER_GRACE_PERIOD_SECONDS = 3_600;
+    public static final int USER_REAPER_BATCH_SIZE = 100;
+    public static final int USER_REAPER_MAX_ATTEMPTS = 5;
+    public static final String USER_REAPER_REAPED = "Reaped deleted users: ";
+    public static final String USER_REAPER_RETRY = "Could not remove avatar folder, will retry: ";
+    public static final String USER_REAPER_GAVE_UP = "Gave up removing avatar folder, remove it manually: ";
+    public static final String USER_REAPER_FAILED = "Could not delete reaped users, will retry: ";
+    public static final long USER_EVENT_RELAY_INTERVAL_MS = 1_000;
+    public static final int USER_EVENT_BATCH_SIZE = 500;
+    public static final long USER_EVENT_RETENTION_SECONDS = 86_400;
+    public static final long USER_EVENT_POLL_INTERVAL_MS = 1_000;
+    public static final long USER_EVENT_POLL_OVERLAP_MS = 10_000;
+    public static final String USER_EVENT_RELAY_FAILED = "Could not relay user events, will retry: ";
+    public static final String USER_EVENT_POLL_FAILED = "Could not poll relayed user events";
+    public static final String USER_EVENT_SUBSCRIBER_FAILED = "User event subscriber failed: ";
+    public static final String USER_VERSION_MISMATCH = "User was changed since it was read, reload it and retry";
+    public static final String INVALID_USER_ETAG = "If-Match must be a single strong ETag of this user: ";
 }
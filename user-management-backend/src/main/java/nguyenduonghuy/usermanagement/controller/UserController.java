@@ -3,7 +3,14 @@ package nguyenduonghuy.usermanagement.controller;
 import static nguyenduonghuy.usermanagement.constant.FileConstant.FORWARD_SLASH;
 import static nguyenduonghuy.usermanagement.constant.FileConstant.TEMP_PROFILE_IMAGE_BASE_URL;
 import static nguyenduonghuy.usermanagement.constant.FileConstant.USER_FOLDER;
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.BEARER_TOKEN_REQUIRED;
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.EXPIRATION_TIME;
 import static nguyenduonghuy.usermanagement.constant.SecurityConstant.JWT_TOKEN_HEADER;
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.TOO_MANY_LOGIN_ATTEMPTS;
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.TOKEN_PREFIX;
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USER_EXPORT_FILE_NAME;
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USER_EXPORT_TIMEOUT_MS;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.IMAGE_JPEG_VALUE;
 
@@ -13,66 +20,167 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.mail.MessagingException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import nguyenduonghuy.usermanagement.controller.cms.GlobalExceptionHandle;
+import nguyenduonghuy.usermanagement.domain.BulkUserRequest;
+import nguyenduonghuy.usermanagement.domain.BulkUserResult;
 import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserDetail;
+import nguyenduonghuy.usermanagement.domain.UserImportReport;
+import nguyenduonghuy.usermanagement.domain.UserPage;
 import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.domain.UserSummary;
+import nguyenduonghuy.usermanagement.domain.UserVersion;
+import nguyenduonghuy.usermanagement.domain.VerifiedToken;
+import nguyenduonghuy.usermanagement.enumeration.BulkAction;
+import nguyenduonghuy.usermanagement.enumeration.ExportFormat;
 import nguyenduonghuy.usermanagement.exception.EmailExistException;
 import nguyenduonghuy.usermanagement.exception.EmailNotFoundException;
+import nguyenduonghuy.usermanagement.exception.InvalidAuthorizationHeaderException;
 import nguyenduonghuy.usermanagement.exception.NotAnImageFileException;
+import nguyenduonghuy.usermanagement.exception.TooManyLoginAttemptsException;
 import nguyenduonghuy.usermanagement.exception.UserNotFoundException;
 import nguyenduonghuy.usermanagement.exception.UsernameExistException;
 import nguyenduonghuy.usermanagement.exception.response.HttpResponse;
+import nguyenduonghuy.usermanagement.service.LoginAttemptService;
+import nguyenduonghuy.usermanagement.service.TokenRevocationService;
+import nguyenduonghuy.usermanagement.service.UserBulkService;
+import nguyenduonghuy.usermanagement.service.UserExportService;
+import nguyenduonghuy.usermanagement.service.UserImportService;
+import nguyenduonghuy.usermanagement.service.UserSearchService;
 import nguyenduonghuy.usermanagement.service.UserService;
 import nguyenduonghuy.usermanagement.utils.JwtTokenProvider;
+import nguyenduonghuy.usermanagement.utils.UserEtags;
 
 @RestController
 @RequestMapping("api/users")
 public class UserController extends GlobalExceptionHandle {
 	private static final String EMAIL_SENT = "An email with a new password was sent to: ";
     private static final String USER_DELETED_SUCCESSFULLY = "User deleted successfully";
+    private static final String LOGGED_OUT_SUCCESSFULLY = "Logged out successfully";
+    private static final String TOKEN_REVOKED_SUCCESSFULLY = "Token revoked successfully";
 	
 	private UserService userService;
 	private AuthenticationManager authenticationManager;
 	private JwtTokenProvider jwtTokenProvider;
+	private TokenRevocationService tokenRevocationService;
+	private LoginAttemptService loginAttemptService;
+	private UserExportService userExportService;
+	private UserSearchService userSearchService;
+	private UserImportService userImportService;
+	private UserBulkService userBulkService;
+	private Timer avatarReadTimer;
+	private long exportTimeoutMillis;
 	
 	@Autowired
-	public UserController(UserService userService, AuthenticationManager authenticationManager, JwtTokenProvider jwtTokenProvider) {
+	public UserController(UserService userService, AuthenticationManager authenticationManager, JwtTokenProvider jwtTokenProvider,
+			TokenRevocationService tokenRevocationService, LoginAttemptService loginAttemptService, UserExportService userExportService,
+			UserSearchService userSearchService, UserImportService userImportService, UserBulkService userBulkService, MeterRegistry meterRegistry,
+			@Value("${user.export.timeout-ms:" + USER_EXPORT_TIMEOUT_MS + "}") long exportTimeoutMillis) {
 		this.userService = userService;
 		this.authenticationManager = authenticationManager;
 		this.jwtTokenProvider = jwtTokenProvider;
+		this.tokenRevocationService = tokenRevocationService;
+		this.loginAttemptService = loginAttemptService;
+		this.userExportService = userExportService;
+		this.userSearchService = userSearchService;
+		this.userImportService = userImportService;
+		this.userBulkService = userBulkService;
+		this.avatarReadTimer = Timer.builder("users.avatar").tag("operation", "read")
+				.description("Time to read or write an avatar file").register(meterRegistry);
+		this.exportTimeoutMillis = exportTimeoutMillis;
 	}
 	
 	@GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAll();
+    public ResponseEntity<UserPage> getAllUsers(@RequestParam(value = "cursor", required = false) String cursor,
+    		@RequestParam(value = "size", required = false) Integer size,
+    		@RequestParam(value = "sort", defaultValue = "id_asc") String sort, WebRequest request) {
+        UserPage users = userService.getPage(cursor, size, sort);
+        String etag = UserEtags.of(users);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(users);
+    }
+	
+	@GetMapping("/export")
+    public WebAsyncTask<Void> exportUsers(@RequestParam(value = "format", defaultValue = "ndjson") String format, HttpServletResponse response) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + USER_EXPORT_FILE_NAME + exportFormat.getExtension());
+        // Exports carry their own timeout, so spring.mvc.async.request-timeout stays short for everything else
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            userExportService.export(exportFormat, response.getOutputStream());
+            return null;
+        });
+    }
+	
+	@PostMapping(path = "/import", consumes = { "text/csv", MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson" })
+    @PreAuthorize("@permissions.has('user:create')")
+    public ResponseEntity<UserImportReport> importUsers(HttpServletRequest request) throws IOException {
+        UserImportReport report = userImportService.importUsers(ExportFormat.fromContentType(request.getContentType()), request.getInputStream());
+        return new ResponseEntity<>(report, OK);
+    }
+	
+	@PostMapping("/bulk/{action}")
+    @PreAuthorize("@permissions.has('delete'.equalsIgnoreCase(#action) ? 'user:delete' : 'user:update')")
+    public ResponseEntity<BulkUserResult> bulkUpdate(@PathVariable("action") String action, @RequestBody BulkUserRequest request) {
+        BulkUserResult result = userBulkService.apply(BulkAction.from(action), request);
+        return new ResponseEntity<>(result, OK);
+    }
+	
+	@GetMapping("/search")
+    public ResponseEntity<List<UserSummary>> searchUsers(@RequestParam("q") String query,
+    		@RequestParam(value = "limit", required = false) Integer limit) {
+        List<UserSummary> users = userSearchService.search(query, limit);
         return new ResponseEntity<>(users, OK);
     }
 	
 	@GetMapping("/find/{username}")
-    public ResponseEntity<User> getUser(@PathVariable("username") String username) {
-        User user = userService.findByUsername(username);
-        return new ResponseEntity<>(user, OK);
+    public ResponseEntity<UserDetail> getUser(@PathVariable("username") String username, WebRequest request) throws UserNotFoundException {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            UserVersion version = userService.getVersion(username);
+            if (request.checkNotModified(UserEtags.of(version.getId(), version.getVersion()))) {
+                return null;
+            }
+        }
+        UserDetail user = userService.getDetail(username);
+        return ResponseEntity.ok().eTag(UserEtags.of(user.getId(), user.getVersion())).body(user);
     }
 	
     @GetMapping("/reset-password/{email}")
@@ -84,7 +192,12 @@ public class UserController extends GlobalExceptionHandle {
     
     @GetMapping(path = "/image/{username}/{fileName}", produces = IMAGE_JPEG_VALUE)
     public byte[] getAvatar(@PathVariable("username") String username, @PathVariable("fileName") String fileName) throws IOException {
-        return Files.readAllBytes(Paths.get(USER_FOLDER + username + FORWARD_SLASH + fileName));
+        long start = System.nanoTime();
+        try {
+            return Files.readAllBytes(Paths.get(USER_FOLDER + username + FORWARD_SLASH + fileName));
+        } finally {
+            avatarReadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     @GetMapping(path = "/image/profile/{username}", produces = IMAGE_JPEG_VALUE)
@@ -108,15 +221,39 @@ public class UserController extends GlobalExceptionHandle {
 	}
 	
 	@PostMapping("/login")
-	public ResponseEntity<User> login(@RequestBody User user) {
-		authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword()));
-		User loginUser = userService.findByUsername(user.getUsername());
-		UserPrincipal userLoginPrincipal = new UserPrincipal(loginUser);
+	public ResponseEntity<User> login(@RequestBody User user, HttpServletRequest request) {
+		if (loginAttemptService.hasIpAddressExceededMaxAttempts(request.getRemoteAddr())) {
+			throw new TooManyLoginAttemptsException(TOO_MANY_LOGIN_ATTEMPTS);
+		}
+		UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword());
+		authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+		Authentication authentication = authenticationManager.authenticate(authenticationToken);
+		UserPrincipal userLoginPrincipal = (UserPrincipal) authentication.getPrincipal();
+		User loginUser = userLoginPrincipal.getUser();
 		HttpHeaders jwtHeaders = new HttpHeaders();
 		jwtHeaders.add(JWT_TOKEN_HEADER, jwtTokenProvider.generateJwtToken(userLoginPrincipal));
 		return new ResponseEntity<>(loginUser, jwtHeaders, OK);
 	}
 	
+	@PostMapping("/logout")
+	public ResponseEntity<HttpResponse> logout(@RequestHeader(value = AUTHORIZATION, required = false) String authorizationHeader) {
+		if (authorizationHeader == null || !authorizationHeader.startsWith(TOKEN_PREFIX)) {
+			throw new InvalidAuthorizationHeaderException(BEARER_TOKEN_REQUIRED);
+		}
+		VerifiedToken verifiedToken = jwtTokenProvider.verifyToken(authorizationHeader.substring(TOKEN_PREFIX.length()));
+		tokenRevocationService.revoke(verifiedToken.getTokenId(), verifiedToken.getExpiresAt());
+		HttpResponse response = new HttpResponse(OK.value(), OK, OK.getReasonPhrase(), LOGGED_OUT_SUCCESSFULLY);
+		return new ResponseEntity<>(response, OK);
+	}
+	
+	@DeleteMapping("/token/{tokenId}")
+	@PreAuthorize("@permissions.has('user:delete')")
+	public ResponseEntity<HttpResponse> revokeToken(@PathVariable("tokenId") String tokenId) {
+		tokenRevocationService.revoke(tokenId, new Date(System.currentTimeMillis() + EXPIRATION_TIME));
+		HttpResponse response = new HttpResponse(OK.value(), OK, OK.getReasonPhrase(), TOKEN_REVOKED_SUCCESSFULLY);
+		return new ResponseEntity<>(response, OK);
+	}
+	
 	@PostMapping("/add")
 	public ResponseEntity<User> addNewUser(@RequestBody User user,
 			@RequestParam(value = "avatar", required = false) MultipartFile avatar) 
@@ -128,10 +265,12 @@ public class UserController extends GlobalExceptionHandle {
 	@PutMapping("/update/{id}")
 	public ResponseEntity<User> updateUser(@PathVariable("id") String id, 
 			@RequestBody User user,
-			@RequestParam(value = "avatar", required = false) MultipartFile avatar) 
+			@RequestParam(value = "avatar", required = false) MultipartFile avatar,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) 
 					throws NumberFormatException, UserNotFoundException, UsernameExistException, EmailExistException, NotAnImageFileException, IOException {
-		User updateUser = userService.update(Long.parseLong(id), user.getFullname(), user.getUsername(), user.getEmail(), user.getRole(), user.isNotLocked(), user.isActive(), avatar);
-		return new ResponseEntity<>(updateUser, HttpStatus.CREATED);
+		Long userId = Long.parseLong(id);
+		User updateUser = userService.update(userId, UserEtags.expectedVersion(ifMatch, userId), user.getFullname(), user.getUsername(), user.getEmail(), user.getRole(), user.isNotLocked(), user.isActive(), avatar);
+		return ResponseEntity.status(HttpStatus.CREATED).eTag(UserEtags.of(updateUser.getId(), updateUser.getVersion())).body(updateUser);
 	}
 	
 	@PutMapping("/updateAvatar/{id}")
@@ -141,8 +280,8 @@ public class UserController extends GlobalExceptionHandle {
     }
     
     @DeleteMapping("/delete/{id}")
-//    @PreAuthorize("hasAnyAuthority('user:delete')")
-    public ResponseEntity<HttpResponse> deleteUser(@PathVariable("id") String id) throws IOException {
+    @PreAuthorize("@permissions.has('user:delete')")
+    public ResponseEntity<HttpResponse> deleteUser(@PathVariable("id") String id) throws UserNotFoundException {
         userService.delete(Long.parseLong(id));
         HttpResponse response = new HttpResponse(OK.value(), OK, OK.getReasonPhrase(), USER_DELETED_SUCCESSFULLY);
         return new ResponseEntity<>(response, OK);
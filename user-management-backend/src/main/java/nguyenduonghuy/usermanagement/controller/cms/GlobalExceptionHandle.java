@@ -1,10 +1,15 @@
 package nguyenduonghuy.usermanagement.controller.cms;
 
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.TOKEN_CANNOT_BE_VERIFIED;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.METHOD_NOT_ALLOWED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 import java.io.IOException;
@@ -12,6 +17,7 @@ import java.util.Objects;
 
 import javax.persistence.NoResultException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,13 +30,22 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.NoHandlerFoundException;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 
 import lombok.extern.slf4j.Slf4j;
 import nguyenduonghuy.usermanagement.exception.EmailExistException;
 import nguyenduonghuy.usermanagement.exception.EmailNotFoundException;
+import nguyenduonghuy.usermanagement.exception.InvalidAuthorizationHeaderException;
+import nguyenduonghuy.usermanagement.exception.InvalidBulkRequestException;
+import nguyenduonghuy.usermanagement.exception.InvalidPageRequestException;
+import nguyenduonghuy.usermanagement.exception.InvalidSearchQueryException;
 import nguyenduonghuy.usermanagement.exception.NotAnImageFileException;
+import nguyenduonghuy.usermanagement.exception.PasswordHashingUnavailableException;
+import nguyenduonghuy.usermanagement.exception.TooManyLoginAttemptsException;
+import nguyenduonghuy.usermanagement.exception.UnsupportedExportFormatException;
 import nguyenduonghuy.usermanagement.exception.UserNotFoundException;
+import nguyenduonghuy.usermanagement.exception.UserVersionMismatchException;
 import nguyenduonghuy.usermanagement.exception.UsernameExistException;
 import nguyenduonghuy.usermanagement.exception.response.HttpResponse;
 
@@ -45,6 +60,7 @@ public class GlobalExceptionHandle {
     private static final String ERROR_PROCESSING_FILE = "Error occurred while processing file";
     private static final String NOT_ENOUGH_PERMISSION = "You do not have enough permission";
     private static final String PAGE_NOT_FOUND = "There is no mapping for this URL";
+    private static final String USER_CHANGED_CONCURRENTLY = "User was changed by another request, reload it and retry";
     
     @ExceptionHandler(DisabledException.class)
     public ResponseEntity<HttpResponse> accountDisabledException() {
@@ -88,6 +104,60 @@ public class GlobalExceptionHandle {
         return createHttpResponse(BAD_REQUEST, exception.getMessage());
     }
     
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<HttpResponse> invalidPageRequestException(InvalidPageRequestException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(BAD_REQUEST, exception.getMessage());
+    }
+    
+    @ExceptionHandler(InvalidAuthorizationHeaderException.class)
+    public ResponseEntity<HttpResponse> invalidAuthorizationHeaderException(InvalidAuthorizationHeaderException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(BAD_REQUEST, exception.getMessage());
+    }
+    
+    @ExceptionHandler(InvalidBulkRequestException.class)
+    public ResponseEntity<HttpResponse> invalidBulkRequestException(InvalidBulkRequestException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(BAD_REQUEST, exception.getMessage());
+    }
+    
+    @ExceptionHandler(InvalidSearchQueryException.class)
+    public ResponseEntity<HttpResponse> invalidSearchQueryException(InvalidSearchQueryException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(BAD_REQUEST, exception.getMessage());
+    }
+    
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<HttpResponse> unsupportedExportFormatException(UnsupportedExportFormatException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(BAD_REQUEST, exception.getMessage());
+    }
+    
+    @ExceptionHandler(UserVersionMismatchException.class)
+    public ResponseEntity<HttpResponse> userVersionMismatchException(UserVersionMismatchException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(PRECONDITION_FAILED, exception.getMessage());
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<HttpResponse> optimisticLockingFailureException(OptimisticLockingFailureException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(CONFLICT, USER_CHANGED_CONCURRENTLY);
+    }
+    
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<HttpResponse> passwordHashingUnavailableException(PasswordHashingUnavailableException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(SERVICE_UNAVAILABLE, exception.getMessage());
+    }
+    
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<HttpResponse> tooManyLoginAttemptsException(TooManyLoginAttemptsException exception) {
+        log.error(exception.getMessage());
+        return createHttpResponse(TOO_MANY_REQUESTS, exception.getMessage());
+    }
+    
     @ExceptionHandler(LockedException.class)
     public ResponseEntity<HttpResponse> lockedException() {
     	log.error(ACCOUNT_LOCKED);
@@ -100,6 +170,12 @@ public class GlobalExceptionHandle {
     	return createHttpResponse(UNAUTHORIZED, exception.getMessage());
     }
     
+    @ExceptionHandler(JWTVerificationException.class)
+    public ResponseEntity<HttpResponse> jwtVerificationException(JWTVerificationException exception) {
+    	log.error(exception.getMessage());
+    	return createHttpResponse(UNAUTHORIZED, TOKEN_CANNOT_BE_VERIFIED);
+    }
+    
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<HttpResponse> accessDeniedException() {
     	log.error(NOT_ENOUGH_PERMISSION);
@@ -0,0 +1,18 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Targets of a bulk operation, either explicit {@code ids} or a {@code filter}, and the new
+ * {@code role} for a role change.
+ */
+@Data
+@NoArgsConstructor
+public class BulkUserRequest {
+	private List<Long> ids;
+	private UserFilter filter;
+	private String role;
+}
@@ -0,0 +1,16 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import nguyenduonghuy.usermanagement.enumeration.BulkAction;
+
+/**
+ * Counts of a bulk operation: users that matched the request and rows the statements changed.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkUserResult {
+	private BulkAction action;
+	private int matched;
+	private int updated;
+}
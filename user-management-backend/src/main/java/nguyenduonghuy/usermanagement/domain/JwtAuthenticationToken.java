@@ -0,0 +1,24 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import nguyenduonghuy.usermanagement.enumeration.Permission;
+
+public class JwtAuthenticationToken extends UsernamePasswordAuthenticationToken {
+	private static final long serialVersionUID = 1L;
+
+	private final int permissionMask;
+
+	public JwtAuthenticationToken(String username, int permissionMask) {
+		super(username, null, Permission.authoritiesOf(permissionMask));
+		this.permissionMask = permissionMask;
+	}
+
+	public int getPermissionMask() {
+		return permissionMask;
+	}
+
+	public boolean hasPermission(Permission permission) {
+		return permission.isGrantedBy(permissionMask);
+	}
+}
@@ -0,0 +1,60 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import nguyenduonghuy.usermanagement.enumeration.LoginAttemptType;
+
+/**
+ * Failed login attempts for one key during one bucket of the sliding window, as recorded by one
+ * node. Only written and read through {@code JdbcLoginAttemptStore}; mapped as an entity so the
+ * schema is managed with the rest of the tables.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_login_attempt_bucket_epoch", columnList = "bucketEpoch"))
+@IdClass(LoginAttempt.LoginAttemptId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginAttempt implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private LoginAttemptType attemptType;
+	@Id
+	@Column(nullable = false)
+	private String attemptKey;
+	@Id
+	@Column(nullable = false)
+	private long bucketEpoch;
+	@Id
+	@Column(nullable = false, length = 36)
+	private String nodeId;
+	@Column(nullable = false)
+	private int attempts;
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class LoginAttemptId implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private LoginAttemptType attemptType;
+		private String attemptKey;
+		private long bucketEpoch;
+		private String nodeId;
+	}
+}
@@ -0,0 +1,33 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(indexes = {
+		@Index(name = "idx_revoked_token_expires_at", columnList = "expiresAt"),
+		@Index(name = "idx_revoked_token_revoked_at", columnList = "revokedAt") })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Column(nullable = false, updatable = false, length = 36)
+	private String tokenId;
+	@Column(nullable = false)
+	private Date expiresAt;
+	// Null for rows written before the column existed; those are loaded by the full rebuild only
+	private Date revokedAt;
+}
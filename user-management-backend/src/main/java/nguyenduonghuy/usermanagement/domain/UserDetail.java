@@ -0,0 +1,28 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only view of a single user. Unlike {@link User} it never carries the password hash or
+ * the authorities array.
+ */
+@Getter
+@AllArgsConstructor
+public class UserDetail {
+	private Long id;
+	private String userId;
+	private String fullname;
+	private String username;
+	private String email;
+	private String avatar;
+	private String role;
+	private LocalDateTime joinDate;
+	private LocalDateTime lastLoginDate;
+	private LocalDateTime lastLoginDateDisplay;
+	private boolean isActive;
+	private boolean isNotLocked;
+	private Long version;
+}
@@ -0,0 +1,49 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import nguyenduonghuy.usermanagement.enumeration.UserEventType;
+
+/**
+ * One change to one user, appended to the outbox in the transaction that made the change.
+ * {@code userId} is the database id of the user; username and email are its values after the
+ * change and are only known for single-user writes. {@code relayedAt} stays null until the relay
+ * has handed the event to the transport.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_user_event_relayed_at_id", columnList = "relayedAt, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEvent implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(nullable = false, updatable = false)
+	private Long id;
+	@Column(nullable = false)
+	private Long userId;
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private UserEventType type;
+	private String username;
+	private String email;
+	@Column(nullable = false)
+	private LocalDateTime createdAt;
+	private LocalDateTime relayedAt;
+}
@@ -0,0 +1,19 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Criteria of a bulk operation; {@code null} fields match every user.
+ */
+@Data
+@NoArgsConstructor
+public class UserFilter {
+	private String role;
+	private Boolean active;
+	private Boolean notLocked;
+
+	public boolean isEmpty() {
+		return role == null && active == null && notLocked == null;
+	}
+}
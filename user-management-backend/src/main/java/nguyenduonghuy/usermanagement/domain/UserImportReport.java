@@ -0,0 +1,34 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import nguyenduonghuy.usermanagement.enumeration.ImportStatus;
+
+/**
+ * Per-row report of a bulk import. {@code truncated} is set when the input had more rows than
+ * one import accepts; rows past the limit were not read.
+ */
+@Getter
+public class UserImportReport {
+	private int total;
+	private int created;
+	private int failed;
+	private boolean truncated;
+	private List<UserImportResult> results = new ArrayList<>();
+
+	public void add(UserImportResult result) {
+		results.add(result);
+		total++;
+		if (result.getStatus() == ImportStatus.CREATED) {
+			created++;
+		} else {
+			failed++;
+		}
+	}
+
+	public void markTruncated() {
+		truncated = true;
+	}
+}
@@ -0,0 +1,18 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import nguyenduonghuy.usermanagement.enumeration.ImportStatus;
+
+/**
+ * Outcome of one imported row; {@code row} is 1-based and counts data rows only.
+ */
+@Getter
+@AllArgsConstructor
+public class UserImportResult {
+	private int row;
+	private String username;
+	private ImportStatus status;
+	private Long id;
+	private String message;
+}
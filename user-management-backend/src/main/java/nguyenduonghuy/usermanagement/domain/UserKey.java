@@ -0,0 +1,16 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Normalized username and email of an existing user, enough to tell which of the two a new
+ * registration collides with.
+ */
+@Getter
+@AllArgsConstructor
+public class UserKey {
+	private Long id;
+	private String usernameKey;
+	private String emailKey;
+}
@@ -0,0 +1,15 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPage {
+	private List<UserSummary> users;
+	private String nextCursor;
+}
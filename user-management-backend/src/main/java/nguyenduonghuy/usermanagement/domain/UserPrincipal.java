@@ -1,16 +1,15 @@
 package nguyenduonghuy.usermanagement.domain;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import nguyenduonghuy.usermanagement.enumeration.Permission;
+import nguyenduonghuy.usermanagement.enumeration.Role;
 
 @Data
 @NoArgsConstructor
@@ -22,7 +21,12 @@ public class UserPrincipal implements UserDetails {
 	
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		return Arrays.stream(this.user.getAuthorities()).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+		return Permission.authoritiesOf(getPermissionMask());
+	}
+
+	public int getPermissionMask() {
+		Role role = Role.of(this.user.getRole());
+		return role == null ? 0 : role.getPermissionMask();
 	}
 
 	@Override
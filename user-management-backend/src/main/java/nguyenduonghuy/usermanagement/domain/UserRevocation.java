@@ -0,0 +1,16 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Username of a user whose tokens were revoked, and until when they were issued.
+ */
+@Getter
+@AllArgsConstructor
+public class UserRevocation {
+	private String username;
+	private LocalDateTime tokensRevokedAt;
+}
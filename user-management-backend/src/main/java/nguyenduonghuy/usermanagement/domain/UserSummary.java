@@ -0,0 +1,26 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Read-only row of the user listing, selected with a constructor expression so only these
+ * columns are fetched and nothing enters the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSummary {
+	private Long id;
+	private String userId;
+	private String fullname;
+	private String username;
+	private String email;
+	private String avatar;
+	private String role;
+	private LocalDateTime joinDate;
+	private boolean isActive;
+	private boolean isNotLocked;
+	private Long version;
+}
@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A deleted user waiting for the reaper: the id of its row and the username naming its avatar folder.
+ */
+@Getter
+@AllArgsConstructor
+public class UserTombstone {
+	private Long id;
+	private String username;
+}
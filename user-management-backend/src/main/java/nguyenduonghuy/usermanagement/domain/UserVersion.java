@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Id and version of a user, enough to build its ETag without loading the row.
+ */
+@Getter
+@AllArgsConstructor
+public class UserVersion {
+	private Long id;
+	private Long version;
+}
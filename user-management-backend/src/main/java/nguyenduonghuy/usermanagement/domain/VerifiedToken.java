@@ -0,0 +1,28 @@
+package nguyenduonghuy.usermanagement.domain;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import nguyenduonghuy.usermanagement.enumeration.Permission;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+	private final String subject;
+	private final String tokenId;
+	private final int permissionMask;
+	private final Date issuedAt;
+	private final Date expiresAt;
+
+	public List<GrantedAuthority> getAuthorities() {
+		return Permission.authoritiesOf(permissionMask);
+	}
+
+	public boolean isExpired() {
+		return expiresAt == null || expiresAt.before(new Date());
+	}
+}
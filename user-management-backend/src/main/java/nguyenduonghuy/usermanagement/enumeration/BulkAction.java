@@ -0,0 +1,36 @@
+package nguyenduonghuy.usermanagement.enumeration;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.UNSUPPORTED_BULK_ACTION;
+
+import nguyenduonghuy.usermanagement.exception.InvalidBulkRequestException;
+
+public enum BulkAction {
+	LOCK(UserEventType.LOCKED),
+	UNLOCK(UserEventType.UPDATED),
+	ACTIVATE(UserEventType.UPDATED),
+	DEACTIVATE(UserEventType.UPDATED),
+	CHANGE_ROLE(UserEventType.UPDATED),
+	DELETE(UserEventType.DELETED),
+	RESET_PASSWORD(UserEventType.PASSWORD_RESET);
+
+	private final UserEventType eventType;
+
+	BulkAction(UserEventType eventType) {
+		this.eventType = eventType;
+	}
+
+	public UserEventType getEventType() {
+		return eventType;
+	}
+
+	/**
+	 * Parses the path form, e.g. {@code change-role}.
+	 */
+	public static BulkAction from(String name) {
+		try {
+			return valueOf(name.toUpperCase().replace('-', '_'));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidBulkRequestException(UNSUPPORTED_BULK_ACTION + name);
+		}
+	}
+}
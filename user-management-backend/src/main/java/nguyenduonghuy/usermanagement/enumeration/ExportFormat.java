@@ -0,0 +1,45 @@
+package nguyenduonghuy.usermanagement.enumeration;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.UNSUPPORTED_EXPORT_FORMAT;
+
+import org.springframework.http.MediaType;
+
+import nguyenduonghuy.usermanagement.exception.UnsupportedExportFormatException;
+
+public enum ExportFormat {
+	NDJSON("application/x-ndjson", "ndjson"),
+	CSV("text/csv", "csv");
+
+	private String contentType;
+	private String extension;
+
+	private ExportFormat(String contentType, String extension) {
+		this.contentType = contentType;
+		this.extension = extension;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Format of an uploaded body: CSV for {@code text/csv}, otherwise JSON, which covers both NDJSON
+	 * and a single JSON array.
+	 */
+	public static ExportFormat fromContentType(String contentType) {
+		return contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV.contentType))
+				? CSV : NDJSON;
+	}
+
+	public static ExportFormat from(String name) {
+		try {
+			return valueOf(name.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new UnsupportedExportFormatException(UNSUPPORTED_EXPORT_FORMAT + name);
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package nguyenduonghuy.usermanagement.enumeration;
+
+public enum ImportStatus {
+	CREATED,
+	DUPLICATE_USERNAME,
+	DUPLICATE_EMAIL,
+	INVALID
+}
@@ -0,0 +1,6 @@
+package nguyenduonghuy.usermanagement.enumeration;
+
+public enum LoginAttemptType {
+	USERNAME,
+	IP_ADDRESS
+}
@@ -0,0 +1,89 @@
+package nguyenduonghuy.usermanagement.enumeration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Single permission encoded as one bit of an {@code int} mask. The granted authority lists
+ * for every possible mask are built once, so mapping a mask back to authorities never allocates.
+ * <p>
+ * Masks are carried in issued tokens, so each constant keeps its explicit bit for good: never
+ * change or reuse a bit, and give a new permission the next free one.
+ */
+public enum Permission {
+	USER_READ("user:read", 0),
+	USER_CREATE("user:create", 1),
+	USER_UPDATE("user:update", 2),
+	USER_DELETE("user:delete", 3);
+
+	private static final Map<String, Permission> BY_AUTHORITY = new HashMap<>();
+	private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK = new ArrayList<>();
+	private static final int ALL_PERMISSIONS;
+
+	static {
+		int allPermissions = 0;
+		for (Permission permission : values()) {
+			BY_AUTHORITY.put(permission.authority, permission);
+			allPermissions |= permission.mask;
+		}
+		ALL_PERMISSIONS = allPermissions;
+		for (int mask = 0; mask <= ALL_PERMISSIONS; mask++) {
+			List<GrantedAuthority> authorities = new ArrayList<>();
+			for (Permission permission : values()) {
+				if ((mask & permission.mask) != 0) {
+					authorities.add(permission.grantedAuthority);
+				}
+			}
+			AUTHORITIES_BY_MASK.add(Collections.unmodifiableList(authorities));
+		}
+	}
+
+	private final String authority;
+	private final int mask;
+	private final GrantedAuthority grantedAuthority;
+
+	private Permission(String authority, int bit) {
+		this.authority = authority;
+		this.mask = 1 << bit;
+		this.grantedAuthority = new SimpleGrantedAuthority(authority);
+	}
+
+	public String getAuthority() {
+		return authority;
+	}
+
+	public int getMask() {
+		return mask;
+	}
+
+	public boolean isGrantedBy(int permissionMask) {
+		return (permissionMask & mask) != 0;
+	}
+
+	public static Permission fromAuthority(String authority) {
+		return BY_AUTHORITY.get(authority);
+	}
+
+	public static int maskOf(String... authorities) {
+		int permissionMask = 0;
+		if (authorities != null) {
+			for (String authority : authorities) {
+				Permission permission = BY_AUTHORITY.get(authority);
+				if (permission != null) {
+					permissionMask |= permission.mask;
+				}
+			}
+		}
+		return permissionMask;
+	}
+
+	public static List<GrantedAuthority> authoritiesOf(int permissionMask) {
+		return AUTHORITIES_BY_MASK.get(permissionMask & ALL_PERMISSIONS);
+	}
+}
@@ -2,20 +2,51 @@ package nguyenduonghuy.usermanagement.enumeration;
 
 import static nguyenduonghuy.usermanagement.constant.Authority.*;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+
 public enum Role {
 	ROLE_USER(USER_AUTHORITIES),
     ROLE_HR(HR_AUTHORITIES),
     ROLE_MANAGER(MANAGER_AUTHORITIES),
     ROLE_ADMIN(ADMIN_AUTHORITIES),
     ROLE_SUPER_ADMIN(SUPER_ADMIN_AUTHORITIES);
-	
+
+	private static final Map<String, Role> BY_NAME = new HashMap<>();
+
+	static {
+		for (Role role : values()) {
+			BY_NAME.put(role.name(), role);
+		}
+	}
+
 	private String[] authorities;
+	private int permissionMask;
 
     private Role(String... authorities) {
     	this.authorities = authorities;
+    	this.permissionMask = Permission.maskOf(authorities);
 	}
 
 	public String[] getAuthorities() {
 		return authorities;
 	}
+
+	public int getPermissionMask() {
+		return permissionMask;
+	}
+
+	public List<GrantedAuthority> getGrantedAuthorities() {
+		return Permission.authoritiesOf(permissionMask);
+	}
+
+	/**
+	 * Looks up a role by its stored name without throwing; unknown or missing names give {@code null}.
+	 */
+	public static Role of(String name) {
+		return name == null ? null : BY_NAME.get(name);
+	}
 }
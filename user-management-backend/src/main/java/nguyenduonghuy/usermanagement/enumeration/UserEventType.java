@@ -0,0 +1,9 @@
+package nguyenduonghuy.usermanagement.enumeration;
+
+public enum UserEventType {
+	CREATED,
+	UPDATED,
+	LOCKED,
+	PASSWORD_RESET,
+	DELETED
+}
@@ -0,0 +1,49 @@
+package nguyenduonghuy.usermanagement.enumeration;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.INVALID_USER_SORT;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+import nguyenduonghuy.usermanagement.exception.InvalidPageRequestException;
+
+/**
+ * Orders supported by the paginated user listing. Every order ends on {@code id} so the keyset is
+ * unique, and each one is backed by an index (the primary key, or {@code idx_user_join_date_id}).
+ */
+public enum UserSort {
+	ID_ASC(false, Direction.ASC),
+	ID_DESC(false, Direction.DESC),
+	JOIN_DATE_ASC(true, Direction.ASC),
+	JOIN_DATE_DESC(true, Direction.DESC);
+
+	private boolean byJoinDate;
+	private Direction direction;
+	private Sort sort;
+
+	private UserSort(boolean byJoinDate, Direction direction) {
+		this.byJoinDate = byJoinDate;
+		this.direction = direction;
+		this.sort = byJoinDate ? Sort.by(direction, "joinDate", "id") : Sort.by(direction, "id");
+	}
+
+	public boolean isByJoinDate() {
+		return byJoinDate;
+	}
+
+	public boolean isAscending() {
+		return direction.isAscending();
+	}
+
+	public Sort getSort() {
+		return sort;
+	}
+
+	public static UserSort from(String name) {
+		try {
+			return valueOf(name.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new InvalidPageRequestException(INVALID_USER_SORT + name);
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.exception;
+
+public class InvalidAuthorizationHeaderException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidAuthorizationHeaderException() {
+		super();
+	}
+	
+	public InvalidAuthorizationHeaderException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.exception;
+
+public class InvalidBulkRequestException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidBulkRequestException() {
+		super();
+	}
+	
+	public InvalidBulkRequestException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidPageRequestException() {
+		super();
+	}
+	
+	public InvalidPageRequestException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.exception;
+
+public class InvalidSearchQueryException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public InvalidSearchQueryException() {
+		super();
+	}
+	
+	public InvalidSearchQueryException(String message) {
+		super(message);
+	}
+}
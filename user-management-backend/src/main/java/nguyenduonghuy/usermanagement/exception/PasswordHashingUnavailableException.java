@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.exception;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public PasswordHashingUnavailableException() {
+		super();
+	}
+	
+	public PasswordHashingUnavailableException(String message) {
+		super(message);
+	}
+}
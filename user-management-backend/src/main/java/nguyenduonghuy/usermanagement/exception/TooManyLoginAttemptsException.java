@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.exception;
+
+public class TooManyLoginAttemptsException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public TooManyLoginAttemptsException() {
+		super();
+	}
+	
+	public TooManyLoginAttemptsException(String message) {
+		super(message);
+	}
+}
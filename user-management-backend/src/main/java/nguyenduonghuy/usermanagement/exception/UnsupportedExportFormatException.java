@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.exception;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public UnsupportedExportFormatException() {
+		super();
+	}
+	
+	public UnsupportedExportFormatException(String message) {
+		super(message);
+	}
+}
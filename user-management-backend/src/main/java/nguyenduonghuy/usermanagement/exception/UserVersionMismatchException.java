@@ -0,0 +1,14 @@
+package nguyenduonghuy.usermanagement.exception;
+
+public class UserVersionMismatchException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+	
+	public UserVersionMismatchException() {
+		super();
+	}
+	
+	public UserVersionMismatchException(String message) {
+		super(message);
+	}
+}
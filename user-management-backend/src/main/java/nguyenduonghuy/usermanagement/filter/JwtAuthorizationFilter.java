@@ -6,27 +6,48 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import static org.springframework.http.HttpStatus.OK;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import lombok.AllArgsConstructor;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import nguyenduonghuy.usermanagement.domain.VerifiedToken;
+import nguyenduonghuy.usermanagement.service.TokenRevocationService;
 import nguyenduonghuy.usermanagement.utils.JwtTokenProvider;
 
+/**
+ * Authenticates requests carrying a bearer token. Only the filter's own work is timed, as
+ * {@code security.jwt.filter} tagged with the outcome; the rest of the chain is excluded.
+ */
 @Component
-@AllArgsConstructor
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
 	private JwtTokenProvider jwtTokenProvider;
+	private TokenRevocationService tokenRevocationService;
+	private Timer anonymousTimer;
+	private Timer authenticatedTimer;
+	private Timer rejectedTimer;
+
+	@Autowired
+	public JwtAuthorizationFilter(JwtTokenProvider jwtTokenProvider, TokenRevocationService tokenRevocationService, MeterRegistry meterRegistry) {
+		this.jwtTokenProvider = jwtTokenProvider;
+		this.tokenRevocationService = tokenRevocationService;
+		this.anonymousTimer = filterTimer(meterRegistry, "anonymous");
+		this.authenticatedTimer = filterTimer(meterRegistry, "authenticated");
+		this.rejectedTimer = filterTimer(meterRegistry, "rejected");
+	}
 
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -34,22 +55,36 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
 		if (request.getMethod().equalsIgnoreCase(OPTIONS_HTTP_METHOD)) {
 			response.setStatus(OK.value());
 		} else {
+			long start = System.nanoTime();
 			String authorizationHeader = request.getHeader(AUTHORIZATION);
 			if (authorizationHeader == null || !authorizationHeader.startsWith(TOKEN_PREFIX)) {
+				anonymousTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 				filterChain.doFilter(request, response);
 				return;
 			}
+			Timer timer = rejectedTimer;
+			try {
 				String token = authorizationHeader.substring(TOKEN_PREFIX.length());
-				String username = jwtTokenProvider.getSubject(token);
-				if (jwtTokenProvider.isTokenValid(username, token)) {
-					List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(token);
-					Authentication authentication = jwtTokenProvider.getAuthentication(username, authorities, request);
+				VerifiedToken verifiedToken = jwtTokenProvider.verifyToken(token);
+				if (jwtTokenProvider.isTokenValid(verifiedToken) && !tokenRevocationService.isRevoked(verifiedToken)) {
+					Authentication authentication = jwtTokenProvider.getAuthentication(verifiedToken, request);
 					SecurityContextHolder.getContext().setAuthentication(authentication);
+					timer = authenticatedTimer;
 				} else {
 					SecurityContextHolder.clearContext();
 				}
+			} catch (JWTVerificationException e) {
+				// A malformed or forged token is treated as anonymous; protected endpoints then reject it
+				SecurityContextHolder.clearContext();
+			} finally {
+				timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			}
 			filterChain.doFilter(request, response);
 		}
 	}
 
+	private static Timer filterTimer(MeterRegistry meterRegistry, String outcome) {
+		return Timer.builder("security.jwt.filter").tag("outcome", outcome)
+				.description("Time spent authenticating the request token").register(meterRegistry);
+	}
 }
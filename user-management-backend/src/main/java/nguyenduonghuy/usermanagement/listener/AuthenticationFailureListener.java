@@ -3,6 +3,7 @@ package nguyenduonghuy.usermanagement.listener;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 
 import nguyenduonghuy.usermanagement.service.LoginAttemptService;
@@ -20,5 +21,10 @@ public class AuthenticationFailureListener {
 			String username = (String) principal;
 			loginAttemptService.addUserToLoginAttemptCache(username);
 		}
+		Object details = event.getAuthentication().getDetails();
+		if (details instanceof WebAuthenticationDetails) {
+			String ipAddress = ((WebAuthenticationDetails) details).getRemoteAddress();
+			loginAttemptService.addIpAddressToLoginAttemptCache(ipAddress);
+		}
 	}
 }
@@ -0,0 +1,41 @@
+package nguyenduonghuy.usermanagement.migration;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the serialized {@code authorities} column; authorities are now derived from {@code role}.
+ * Every writer always stored exactly the role's authorities, so no data is lost.
+ */
+@Component
+@Order(2)
+public class DropUserAuthoritiesMigration implements Migration {
+	private static final String USER_TABLE = "user";
+	private static final String AUTHORITIES_COLUMN = "authorities";
+	private static final String DROP_AUTHORITIES = "alter table user drop column authorities";
+
+	@Override
+	public String getId() {
+		return "002-user-drop-authorities";
+	}
+
+	@Override
+	public void migrate(JdbcTemplate jdbcTemplate) {
+		if (Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+			DatabaseMetaData metaData = connection.getMetaData();
+			boolean upperCase = metaData.storesUpperCaseIdentifiers();
+			try (ResultSet columns = metaData.getColumns(connection.getCatalog(), null,
+					upperCase ? USER_TABLE.toUpperCase() : USER_TABLE,
+					upperCase ? AUTHORITIES_COLUMN.toUpperCase() : AUTHORITIES_COLUMN)) {
+				return columns.next();
+			}
+		}))) {
+			jdbcTemplate.execute(DROP_AUTHORITIES);
+		}
+	}
+}
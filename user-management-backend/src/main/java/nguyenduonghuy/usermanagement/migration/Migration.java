@@ -0,0 +1,18 @@
+package nguyenduonghuy.usermanagement.migration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * One-off data change applied by {@link MigrationRunner} after Hibernate has updated the schema.
+ * Migrations run once per database in {@code @Order}, each in its own transaction, and must be
+ * safe to re-run on rows they already migrated.
+ */
+public interface Migration {
+
+	/**
+	 * Stable identifier recorded once the migration has been applied; never rename it.
+	 */
+	String getId();
+
+	void migrate(JdbcTemplate jdbcTemplate);
+}
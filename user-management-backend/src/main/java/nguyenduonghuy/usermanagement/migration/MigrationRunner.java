@@ -0,0 +1,76 @@
+package nguyenduonghuy.usermanagement.migration;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies pending {@link Migration}s at startup, before the application serves requests. Each
+ * migration first claims its row in {@code schema_migration} and then runs in the same
+ * transaction, so a node starting concurrently waits on the claim and skips the migration once
+ * it has been committed elsewhere. A failing migration rolls back and aborts startup.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class MigrationRunner {
+	private static final String CREATE_MIGRATION_TABLE = "create table if not exists schema_migration "
+			+ "(id varchar(100) not null primary key, applied_at timestamp not null)";
+	private static final String COUNT_MIGRATION = "select count(*) from schema_migration where id = ?";
+	private static final String INSERT_MIGRATION = "insert into schema_migration (id, applied_at) values (?, ?)";
+
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transactionTemplate;
+	private List<Migration> migrations;
+
+	@Autowired
+	public MigrationRunner(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, List<Migration> migrations) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.migrations = migrations;
+	}
+
+	@PostConstruct
+	public void migrate() {
+		jdbcTemplate.execute(CREATE_MIGRATION_TABLE);
+		for (Migration migration : migrations) {
+			if (isApplied(migration)) {
+				continue;
+			}
+			transactionTemplate.executeWithoutResult(status -> {
+				if (claim(migration)) {
+					migration.migrate(jdbcTemplate);
+					log.info(MIGRATION_APPLIED + migration.getId());
+				}
+			});
+		}
+	}
+
+	private boolean claim(Migration migration) {
+		try {
+			jdbcTemplate.update(INSERT_MIGRATION, migration.getId(), Timestamp.valueOf(LocalDateTime.now()));
+			return true;
+		} catch (DuplicateKeyException e) {
+			log.info(MIGRATION_APPLIED_ELSEWHERE + migration.getId());
+			return false;
+		}
+	}
+
+	private boolean isApplied(Migration migration) {
+		Integer count = jdbcTemplate.queryForObject(COUNT_MIGRATION, Integer.class, migration.getId());
+		return count != null && count > 0;
+	}
+}
@@ -0,0 +1,26 @@
+package nguyenduonghuy.usermanagement.migration;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the normalized username and email key columns for rows created before they existed.
+ * Fails, and keeps the application from starting, if two existing users differ only by case.
+ */
+@Component
+@Order(1)
+public class UserKeyMigration implements Migration {
+	private static final String BACKFILL_USER_KEYS = "update user set username_key = lower(trim(username)), email_key = lower(trim(email)) "
+			+ "where username_key is null or email_key is null";
+
+	@Override
+	public String getId() {
+		return "001-user-normalized-keys";
+	}
+
+	@Override
+	public void migrate(JdbcTemplate jdbcTemplate) {
+		jdbcTemplate.update(BACKFILL_USER_KEYS);
+	}
+}
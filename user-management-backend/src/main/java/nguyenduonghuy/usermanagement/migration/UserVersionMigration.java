@@ -0,0 +1,25 @@
+package nguyenduonghuy.usermanagement.migration;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts the version of users created before the column existed at zero. Hibernate cannot
+ * increment a null version, and the set-based updates would leave it null.
+ */
+@Component
+@Order(3)
+public class UserVersionMigration implements Migration {
+	private static final String BACKFILL_USER_VERSION = "update user set version = 0 where version is null";
+
+	@Override
+	public String getId() {
+		return "003-user-version";
+	}
+
+	@Override
+	public void migrate(JdbcTemplate jdbcTemplate) {
+		jdbcTemplate.update(BACKFILL_USER_VERSION);
+	}
+}
@@ -0,0 +1,23 @@
+package nguyenduonghuy.usermanagement.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import nguyenduonghuy.usermanagement.domain.RevokedToken;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+	@Query("select t.tokenId from RevokedToken t where t.expiresAt > :now")
+	List<String> findActiveTokenIds(@Param("now") Date now);
+
+	@Query("select t.tokenId from RevokedToken t where t.revokedAt > :since and t.expiresAt > :now")
+	List<String> findTokenIdsRevokedSince(@Param("since") Date since, @Param("now") Date now);
+
+	@Modifying
+	@Query("delete from RevokedToken t where t.expiresAt <= :now")
+	int deleteExpired(@Param("now") Date now);
+}
@@ -0,0 +1,35 @@
+package nguyenduonghuy.usermanagement.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+
+public interface UserEventRepository extends JpaRepository<UserEvent, Long> {
+
+	/**
+	 * Locks the oldest pending events so relays on other nodes wait instead of sending them twice.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select e from UserEvent e where e.relayedAt is null order by e.id")
+	List<UserEvent> findPendingForUpdate(Pageable pageable);
+
+	@Query("select e from UserEvent e where e.relayedAt >= :since order by e.relayedAt, e.id")
+	List<UserEvent> findRelayedSince(@Param("since") LocalDateTime since, Pageable pageable);
+
+	@Query("select e from UserEvent e where e.relayedAt > :relayedAt or (e.relayedAt = :relayedAt and e.id > :id) order by e.relayedAt, e.id")
+	List<UserEvent> findRelayedAfter(@Param("relayedAt") LocalDateTime relayedAt, @Param("id") Long id, Pageable pageable);
+
+	@Modifying
+	@Query("delete from UserEvent e where e.relayedAt < :before")
+	int deleteRelayedBefore(@Param("before") LocalDateTime before);
+}
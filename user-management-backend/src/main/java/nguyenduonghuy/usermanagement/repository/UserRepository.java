@@ -1,10 +1,100 @@
 package nguyenduonghuy.usermanagement.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserDetail;
+import nguyenduonghuy.usermanagement.domain.UserKey;
+import nguyenduonghuy.usermanagement.domain.UserRevocation;
+import nguyenduonghuy.usermanagement.domain.UserSummary;
+import nguyenduonghuy.usermanagement.domain.UserVersion;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+	String USER_SUMMARY = "nguyenduonghuy.usermanagement.domain.UserSummary(u.id, u.userId, u.fullname, u.username, u.email, "
+			+ "u.avatar, u.role, u.joinDate, u.isActive, u.isNotLocked, u.version)";
+	String USER_DETAIL = "nguyenduonghuy.usermanagement.domain.UserDetail(u.id, u.userId, u.fullname, u.username, u.email, "
+			+ "u.avatar, u.role, u.joinDate, u.lastLoginDate, u.lastLoginDateDisplay, u.isActive, u.isNotLocked, u.version)";
+
 	User findByUsername(String username);
 	User findByEmail(String email);
+
+	@Query("select new nguyenduonghuy.usermanagement.domain.UserKey(u.id, u.usernameKey, u.emailKey) from User u "
+			+ "where u.usernameKey = :usernameKey or u.emailKey = :emailKey")
+	List<UserKey> findKeysByUsernameKeyOrEmailKey(@Param("usernameKey") String usernameKey, @Param("emailKey") String emailKey);
+
+	@Query("select new nguyenduonghuy.usermanagement.domain.UserKey(u.id, u.usernameKey, u.emailKey) from User u "
+			+ "where u.usernameKey in :usernameKeys or u.emailKey in :emailKeys")
+	List<UserKey> findKeysByUsernameKeyInOrEmailKeyIn(@Param("usernameKeys") Collection<String> usernameKeys,
+			@Param("emailKeys") Collection<String> emailKeys);
+
+	@Query("select new " + USER_SUMMARY + " from User u")
+	Slice<UserSummary> findSummaries(Pageable pageable);
+
+	@Query("select new " + USER_SUMMARY + " from User u where u.id > :id")
+	Slice<UserSummary> findSummariesAfterId(@Param("id") Long id, Pageable pageable);
+
+	@Query("select new " + USER_SUMMARY + " from User u where u.id < :id")
+	Slice<UserSummary> findSummariesBeforeId(@Param("id") Long id, Pageable pageable);
+
+	@Query("select new " + USER_SUMMARY + " from User u where u.joinDate > :joinDate or (u.joinDate = :joinDate and u.id > :id)")
+	Slice<UserSummary> findSummariesAfterJoinDate(@Param("joinDate") LocalDateTime joinDate, @Param("id") Long id, Pageable pageable);
+
+	@Query("select new " + USER_SUMMARY + " from User u where u.joinDate < :joinDate or (u.joinDate = :joinDate and u.id < :id)")
+	Slice<UserSummary> findSummariesBeforeJoinDate(@Param("joinDate") LocalDateTime joinDate, @Param("id") Long id, Pageable pageable);
+
+	@Query("select new " + USER_SUMMARY + " from User u where u.id in :ids")
+	List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query("select new " + USER_DETAIL + " from User u where u.username = :username")
+	UserDetail findDetailByUsername(@Param("username") String username);
+
+	@Query("select new nguyenduonghuy.usermanagement.domain.UserVersion(u.id, u.version) from User u where u.username = :username")
+	UserVersion findVersionByUsername(@Param("username") String username);
+
+	@Query("select u.id from User u where (:role is null or u.role = :role) and (:active is null or u.isActive = :active) "
+			+ "and (:notLocked is null or u.isNotLocked = :notLocked) order by u.id")
+	List<Long> findIdsByFilter(@Param("role") String role, @Param("active") Boolean active, @Param("notLocked") Boolean notLocked);
+
+	@Modifying
+	@Query("update User u set u.isNotLocked = :notLocked, u.version = u.version + 1 where u.id in :ids and u.deletedAt is null")
+	int updateNotLockedByIdIn(@Param("ids") Collection<Long> ids, @Param("notLocked") boolean notLocked);
+
+	@Modifying
+	@Query("update User u set u.isNotLocked = false, u.tokensRevokedAt = :revokedAt, u.version = u.version + 1 "
+			+ "where u.id in :ids and u.deletedAt is null")
+	int lockByIdIn(@Param("ids") Collection<Long> ids, @Param("revokedAt") LocalDateTime revokedAt);
+
+	@Modifying
+	@Query("update User u set u.isActive = :active, u.version = u.version + 1 where u.id in :ids and u.deletedAt is null")
+	int updateActiveByIdIn(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
+
+	@Modifying
+	@Query("update User u set u.isActive = false, u.tokensRevokedAt = :revokedAt, u.version = u.version + 1 "
+			+ "where u.id in :ids and u.deletedAt is null")
+	int deactivateByIdIn(@Param("ids") Collection<Long> ids, @Param("revokedAt") LocalDateTime revokedAt);
+
+	@Query("select new nguyenduonghuy.usermanagement.domain.UserRevocation(u.username, u.tokensRevokedAt) from User u "
+			+ "where u.tokensRevokedAt > :since")
+	List<UserRevocation> findRevocationsSince(@Param("since") LocalDateTime since);
+
+	@Modifying
+	@Query("update User u set u.role = :role, u.version = u.version + 1 where u.id in :ids and u.deletedAt is null")
+	int updateRoleByIdIn(@Param("ids") Collection<Long> ids, @Param("role") String role);
+
+	@Modifying
+	@Query("update User u set u.deletedAt = :deletedAt, u.version = u.version + 1 where u.id in :ids and u.deletedAt is null")
+	int tombstoneByIdIn(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+
+	@Modifying
+	@Query("update User u set u.password = :password, u.version = u.version + 1 where u.username = :username and u.deletedAt is null")
+	int updatePassword(@Param("username") String username, @Param("password") String password);
 }
@@ -0,0 +1,119 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.EmailConstant.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends new password emails on a small bounded worker pool so bulk operations never wait on SMTP.
+ * Emails queued inside a transaction are only handed to the pool after it commits. Failed sends
+ * are retried with a linear backoff; when the queue is full the email is dropped and counted, and
+ * the user can still recover the account through a password reset.
+ */
+@Service
+@Slf4j
+public class EmailQueueService {
+
+	private EmailService emailService;
+	private ThreadPoolExecutor executor;
+	private int maxAttempts;
+	private long retryDelayMillis;
+	private Counter sentCounter;
+	private Counter failedCounter;
+	private Counter droppedCounter;
+
+	@Autowired
+	public EmailQueueService(EmailService emailService, MeterRegistry meterRegistry,
+			@Value("${email.queue.capacity:" + EMAIL_QUEUE_CAPACITY + "}") int capacity,
+			@Value("${email.queue.threads:" + EMAIL_QUEUE_THREADS + "}") int threads,
+			@Value("${email.queue.max-attempts:" + EMAIL_MAX_ATTEMPTS + "}") int maxAttempts,
+			@Value("${email.queue.retry-delay-ms:" + EMAIL_RETRY_DELAY_MS + "}") long retryDelayMillis) {
+		this.emailService = emailService;
+		this.maxAttempts = maxAttempts;
+		this.retryDelayMillis = retryDelayMillis;
+		BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(capacity);
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+			Thread thread = new Thread(runnable, "email-queue-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.sentCounter = Counter.builder("email.queue.sent").description("Queued emails sent").register(meterRegistry);
+		this.failedCounter = Counter.builder("email.queue.failed").description("Queued emails that failed every attempt").register(meterRegistry);
+		this.droppedCounter = Counter.builder("email.queue.dropped").description("Emails dropped because the queue was full").register(meterRegistry);
+		Gauge.builder("email.queue.pending", queue, BlockingQueue::size).description("Emails waiting to be sent").register(meterRegistry);
+	}
+
+	public void enqueueNewPassword(String fullname, String password, String email) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					submit(fullname, password, email);
+				}
+			});
+		} else {
+			submit(fullname, password, email);
+		}
+	}
+
+	public int getPendingCount() {
+		return executor.getQueue().size() + executor.getActiveCount();
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(EMAIL_QUEUE_SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private void submit(String fullname, String password, String email) {
+		try {
+			executor.execute(() -> send(fullname, password, email));
+		} catch (RejectedExecutionException e) {
+			droppedCounter.increment();
+			log.error(EMAIL_QUEUE_FULL + email);
+		}
+	}
+
+	private void send(String fullname, String password, String email) {
+		for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+			try {
+				emailService.sendNewPasswordToEmail(fullname, password, email);
+				sentCounter.increment();
+				return;
+			} catch (MessagingException | RuntimeException e) {
+				if (attempt == maxAttempts) {
+					failedCounter.increment();
+					log.error(EMAIL_SEND_FAILED + email, e);
+					return;
+				}
+				try {
+					Thread.sleep(retryDelayMillis * attempt);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+}
@@ -6,6 +6,7 @@ import static nguyenduonghuy.usermanagement.constant.EmailConstant.*;
 
 import java.util.Date;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import javax.mail.Message;
 import javax.mail.MessagingException;
@@ -13,19 +14,52 @@ import javax.mail.Session;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.sun.mail.smtp.SMTPTransport;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Component
 public class EmailService {
 
+	private String protocol;
+	private String host;
+	private int port;
+	private boolean starttls;
+	private Timer sentTimer;
+	private Timer failedTimer;
+
+	@Autowired
+	public EmailService(MeterRegistry meterRegistry,
+			@Value("${email.smtp.protocol:" + SIMPLE_MAIL_TRANSFER_PROTOCOL + "}") String protocol,
+			@Value("${email.smtp.host:" + GMAIL_SMTP_SERVER + "}") String host,
+			@Value("${email.smtp.port:" + DEFAULT_PORT + "}") int port,
+			@Value("${email.smtp.starttls:true}") boolean starttls) {
+		this.protocol = protocol;
+		this.host = host;
+		this.port = port;
+		this.starttls = starttls;
+		this.sentTimer = Timer.builder("email.send").tag("outcome", "sent").description("Time to send one email over SMTP").register(meterRegistry);
+		this.failedTimer = Timer.builder("email.send").tag("outcome", "failed").description("Time to send one email over SMTP").register(meterRegistry);
+	}
+
 	public void sendNewPasswordToEmail(String firstName, String password, String email) throws MessagingException {
-        Message message = createEmail(firstName, password, email);
-        SMTPTransport smtpTransport = (SMTPTransport) getEmailSession().getTransport(SIMPLE_MAIL_TRANSFER_PROTOCOL);
-        smtpTransport.connect(GMAIL_SMTP_SERVER, USERNAME, PASSWORD);
-        smtpTransport.sendMessage(message, message.getAllRecipients());
-        smtpTransport.close();
+        long start = System.nanoTime();
+        Timer timer = failedTimer;
+        try {
+            Message message = createEmail(firstName, password, email);
+            SMTPTransport smtpTransport = (SMTPTransport) getEmailSession().getTransport(protocol);
+            smtpTransport.connect(host, port, USERNAME, PASSWORD);
+            smtpTransport.sendMessage(message, message.getAllRecipients());
+            smtpTransport.close();
+            timer = sentTimer;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     private Message createEmail(String firstName, String password, String email) throws MessagingException {
@@ -42,11 +76,11 @@ public class EmailService {
 
     private Session getEmailSession() {
         Properties properties = System.getProperties();
-        properties.put(SMTP_HOST, GMAIL_SMTP_SERVER);
+        properties.put(SMTP_HOST, host);
         properties.put(SMTP_AUTH, true);
-        properties.put(SMTP_PORT, DEFAULT_PORT);
-        properties.put(SMTP_STARTTLS_ENABLE, true);
-        properties.put(SMTP_STARTTLS_REQUIRED, true);
+        properties.put(SMTP_PORT, port);
+        properties.put(SMTP_STARTTLS_ENABLE, starttls);
+        properties.put(SMTP_STARTTLS_REQUIRED, starttls);
 		return Session.getInstance(properties, null);
 	}
 }
@@ -0,0 +1,140 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.User;
+
+/**
+ * Write-behind store for last login dates. Logins only update the in-memory entity and a
+ * pending map that keeps the latest timestamp per user; the map is flushed to the database
+ * in JDBC batches on a fixed delay and on shutdown. Logins never flush themselves: once the map
+ * is half full they wake a background flusher, and at {@code user.last-login.max-pending} new
+ * users are dropped and counted. A dropped date is only the display value, the next login
+ * records it again. While the database is failing, only the scheduled flush retries.
+ */
+@Service
+@Slf4j
+public class LastLoginUpdateService {
+	private static final String UPDATE_LAST_LOGIN_DATE = "update user set last_login_date_display = last_login_date, last_login_date = ?, version = version + 1 "
+			+ "where id = ? and (last_login_date is null or last_login_date < ?)";
+
+	private EntityManager entityManager;
+	private JdbcTemplate jdbcTemplate;
+	private int maxPending;
+	private int batchSize;
+	private Map<Long, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+	private ThreadPoolExecutor flusher;
+	private AtomicBoolean flushRequested = new AtomicBoolean();
+	private volatile boolean lastFlushFailed;
+	private Counter droppedCounter;
+
+	@Autowired
+	public LastLoginUpdateService(EntityManager entityManager, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+			@Value("${user.last-login.max-pending:" + LAST_LOGIN_MAX_PENDING + "}") int maxPending,
+			@Value("${user.last-login.batch-size:" + LAST_LOGIN_BATCH_SIZE + "}") int batchSize) {
+		this.entityManager = entityManager;
+		this.jdbcTemplate = jdbcTemplate;
+		this.maxPending = maxPending;
+		this.batchSize = batchSize;
+		this.flusher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), runnable -> {
+			Thread thread = new Thread(runnable, "last-login-flush");
+			thread.setDaemon(true);
+			return thread;
+		}, new ThreadPoolExecutor.DiscardPolicy());
+		Gauge.builder("users.last_login.pending", pendingLogins, Map::size)
+				.description("Last login dates waiting to be written")
+				.register(meterRegistry);
+		this.droppedCounter = Counter.builder("users.last_login.dropped")
+				.description("Last login dates dropped because too many were pending")
+				.register(meterRegistry);
+	}
+
+	public void recordLogin(User user) {
+		LocalDateTime now = LocalDateTime.now();
+		if (entityManager.contains(user)) {
+			entityManager.detach(user);
+		}
+		user.setLastLoginDateDisplay(user.getLastLoginDate());
+		user.setLastLoginDate(now);
+		merge(user.getId(), now);
+		if (pendingLogins.size() >= maxPending / 2 && !lastFlushFailed && flushRequested.compareAndSet(false, true)) {
+			flusher.execute(() -> {
+				try {
+					flush();
+				} finally {
+					flushRequested.set(false);
+				}
+			});
+		}
+	}
+
+	public int getPendingCount() {
+		return pendingLogins.size();
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		flusher.shutdown();
+		flusher.awaitTermination(LAST_LOGIN_SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+		flush();
+	}
+
+	@Scheduled(fixedDelayString = "${user.last-login.flush-interval-ms:" + LAST_LOGIN_FLUSH_INTERVAL_MS + "}")
+	public synchronized void flush() {
+		if (pendingLogins.isEmpty()) {
+			return;
+		}
+		List<Object[]> batch = new ArrayList<>();
+		for (Long id : pendingLogins.keySet()) {
+			LocalDateTime lastLoginDate = pendingLogins.remove(id);
+			if (lastLoginDate != null) {
+				Timestamp timestamp = Timestamp.valueOf(lastLoginDate);
+				batch.add(new Object[] { timestamp, id, timestamp });
+			}
+		}
+		try {
+			for (int from = 0; from < batch.size(); from += batchSize) {
+				jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN_DATE, batch.subList(from, Math.min(from + batchSize, batch.size())));
+			}
+			lastFlushFailed = false;
+		} catch (RuntimeException e) {
+			lastFlushFailed = true;
+			batch.forEach(row -> merge((Long) row[1], ((Timestamp) row[0]).toLocalDateTime()));
+			log.error(LAST_LOGIN_FLUSH_FAILED + pendingLogins.size(), e);
+		}
+	}
+
+	private void merge(Long id, LocalDateTime lastLoginDate) {
+		// The size check is not atomic with the insert, so the map can pass the bound by the
+		// number of concurrent logins, never more
+		if (pendingLogins.size() >= maxPending && !pendingLogins.containsKey(id)) {
+			droppedCounter.increment();
+			return;
+		}
+		pendingLogins.merge(id, lastLoginDate, (pending, latest) -> latest.isAfter(pending) ? latest : pending);
+	}
+}
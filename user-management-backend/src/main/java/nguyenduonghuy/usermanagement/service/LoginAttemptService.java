@@ -1,54 +1,78 @@
 package nguyenduonghuy.usermanagement.service;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.*;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import nguyenduonghuy.usermanagement.enumeration.LoginAttemptType;
 
+/**
+ * Every limit check is counted as {@code security.login_attempt.checks}, tagged with the key type
+ * and whether the key was untracked (a miss), tracked but under the limit, or blocked; the hit
+ * rate is the share of checks that found the key. The number of tracked keys is a gauge.
+ */
 @Service
 public class LoginAttemptService {
+	private static final String[] RESULTS = { "untracked", "tracked", "blocked" };
+
+	private LoginAttemptStore loginAttemptStore;
+	private int maximumAttemptsPerUsername;
+	private int maximumAttemptsPerIpAddress;
+	private Map<LoginAttemptType, Counter[]> checkCounters = new EnumMap<>(LoginAttemptType.class);
 
-	private static final int MAXIMUM_NUMBER_OF_ATTEMPTS = 5;
-	private static final int ATTEMPT_INCREMENT = 1;
-	private LoadingCache<String, Integer> loginAttemptCache;
-	
-	public LoginAttemptService() {
-		loginAttemptCache = CacheBuilder.newBuilder()
-				.expireAfterWrite(15, TimeUnit.MINUTES)
-				.maximumSize(100)
-				.build(new CacheLoader<String, Integer>() {
-					@Override
-					public Integer load(String key) throws Exception {
-						return 0;
-					}
-				});
+	@Autowired
+	public LoginAttemptService(LoginAttemptStore loginAttemptStore, MeterRegistry meterRegistry,
+			@Value("${login-attempt.username.max-attempts:" + LOGIN_ATTEMPT_MAX_PER_USERNAME + "}") int maximumAttemptsPerUsername,
+			@Value("${login-attempt.ip-address.max-attempts:" + LOGIN_ATTEMPT_MAX_PER_IP_ADDRESS + "}") int maximumAttemptsPerIpAddress) {
+		this.loginAttemptStore = loginAttemptStore;
+		this.maximumAttemptsPerUsername = maximumAttemptsPerUsername;
+		this.maximumAttemptsPerIpAddress = maximumAttemptsPerIpAddress;
+		for (LoginAttemptType type : LoginAttemptType.values()) {
+			String tag = type.name().toLowerCase();
+			Counter[] counters = new Counter[RESULTS.length];
+			for (int i = 0; i < RESULTS.length; i++) {
+				counters[i] = Counter.builder("security.login_attempt.checks").tag("type", tag).tag("result", RESULTS[i])
+						.description("Login attempt limit checks").register(meterRegistry);
+			}
+			checkCounters.put(type, counters);
+			Gauge.builder("security.login_attempt.tracked", loginAttemptStore, store -> store.size(type)).tag("type", tag)
+					.description("Keys with failed login attempts inside the window").register(meterRegistry);
+		}
 	}
-	
+
 	public void evictUserFromLoginAttemptCache(String username) {
-        loginAttemptCache.invalidate(username);
+        loginAttemptStore.reset(LoginAttemptType.USERNAME, username);
     }
 
     public void addUserToLoginAttemptCache(String username) {
-        int attempts = 0;
-        try {
-            attempts = loginAttemptCache.get(username) + ATTEMPT_INCREMENT;
-        } catch (ExecutionException e) {
-            e.printStackTrace();
-        }
-        loginAttemptCache.put(username, attempts);
+        loginAttemptStore.increment(LoginAttemptType.USERNAME, username);
     }
 
     public boolean hasExceededMaxAttempts(String username) {
-        try {
-            return loginAttemptCache.get(username) >= MAXIMUM_NUMBER_OF_ATTEMPTS;
-        } catch (ExecutionException e) {
-            e.printStackTrace();
-        }
-        return false;
+        return hasExceeded(LoginAttemptType.USERNAME, username, maximumAttemptsPerUsername);
+    }
+
+    public void addIpAddressToLoginAttemptCache(String ipAddress) {
+        loginAttemptStore.increment(LoginAttemptType.IP_ADDRESS, ipAddress);
     }
-		
+
+    public boolean hasIpAddressExceededMaxAttempts(String ipAddress) {
+        return hasExceeded(LoginAttemptType.IP_ADDRESS, ipAddress, maximumAttemptsPerIpAddress);
+    }
+
+    private boolean hasExceeded(LoginAttemptType type, String key, int maximumAttempts) {
+        int attempts = loginAttemptStore.count(type, key);
+        boolean exceeded = attempts >= maximumAttempts;
+        checkCounters.get(type)[exceeded ? 2 : attempts > 0 ? 1 : 0].increment();
+        return exceeded;
+    }
+
 }
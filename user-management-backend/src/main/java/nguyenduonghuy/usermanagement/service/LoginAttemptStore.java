@@ -0,0 +1,22 @@
+package nguyenduonghuy.usermanagement.service;
+
+import nguyenduonghuy.usermanagement.enumeration.LoginAttemptType;
+
+/**
+ * Counts failed login attempts per key over a sliding window. Implementations are selected with
+ * {@code login-attempt.store}: {@code memory} (default) keeps counts in this JVM only, {@code jdbc}
+ * shares them between every node pointed at the same database.
+ */
+public interface LoginAttemptStore {
+
+	int increment(LoginAttemptType type, String key);
+
+	int count(LoginAttemptType type, String key);
+
+	void reset(LoginAttemptType type, String key);
+
+	/**
+	 * Number of keys of the given type that still have attempts inside the window.
+	 */
+	int size(LoginAttemptType type);
+}
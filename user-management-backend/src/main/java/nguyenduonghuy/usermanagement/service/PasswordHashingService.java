@@ -0,0 +1,162 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import nguyenduonghuy.usermanagement.exception.PasswordHashingUnavailableException;
+
+/**
+ * BCrypt {@link PasswordEncoder} that runs every encode and match on a bounded worker pool.
+ * The calling request thread still blocks until its hash is done, so the pool does not free
+ * Tomcat threads; it bounds how many hashes use the CPU at once and sheds load early. When all
+ * workers are busy and the queue is full the call fails immediately with
+ * {@link PasswordHashingUnavailableException} (503) instead of waiting its turn. Hashes with a
+ * cost other than the configured strength are reported by {@link #upgradeEncoding(String)} so
+ * they are rehashed on the next successful login.
+ */
+@Service
+public class PasswordHashingService implements PasswordEncoder {
+	private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+	private BCryptPasswordEncoder bCryptPasswordEncoder;
+	private int strength;
+	private ThreadPoolExecutor executor;
+	private Timer encodeTimer;
+	private Timer matchTimer;
+	private Counter rejectedCounter;
+
+	@Autowired
+	public PasswordHashingService(MeterRegistry meterRegistry,
+			@Value("${password-hashing.strength:" + PASSWORD_HASHING_STRENGTH + "}") int strength,
+			@Value("${password-hashing.pool-size:0}") int poolSize,
+			@Value("${password-hashing.queue-capacity:" + PASSWORD_HASHING_QUEUE_CAPACITY + "}") int queueCapacity) {
+		this.bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+		this.strength = strength;
+		int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+		BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+			Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.encodeTimer = Timer.builder("security.password.hash").tag("operation", "encode")
+				.description("BCrypt hashing time").register(meterRegistry);
+		this.matchTimer = Timer.builder("security.password.hash").tag("operation", "match")
+				.description("BCrypt hashing time").register(meterRegistry);
+		this.rejectedCounter = Counter.builder("security.password.hash.rejected")
+				.description("Hash requests rejected because the worker pool was saturated").register(meterRegistry);
+		Gauge.builder("security.password.hash.queue", queue, BlockingQueue::size)
+				.description("Hash requests waiting for a worker").register(meterRegistry);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return execute(() -> bCryptPasswordEncoder.encode(rawPassword), encodeTimer);
+	}
+
+	/**
+	 * Encodes a batch in parallel. At most one task per worker is in flight, so bulk callers never
+	 * take the queue slots interactive requests rely on; when the pool is saturated the caller
+	 * hashes on its own thread instead of failing.
+	 */
+	public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+		Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+		List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+		for (CharSequence rawPassword : rawPasswords) {
+			inFlight.acquireUninterruptibly();
+			Callable<String> task = () -> {
+				try {
+					return encodeTimer.recordCallable(() -> bCryptPasswordEncoder.encode(rawPassword));
+				} finally {
+					inFlight.release();
+				}
+			};
+			try {
+				futures.add(executor.submit(task));
+			} catch (RejectedExecutionException e) {
+				FutureTask<String> inline = new FutureTask<>(task);
+				inline.run();
+				futures.add(inline);
+			}
+		}
+		List<String> encodedPasswords = new ArrayList<>(futures.size());
+		for (Future<String> future : futures) {
+			encodedPasswords.add(await(future));
+		}
+		return encodedPasswords;
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return execute(() -> bCryptPasswordEncoder.matches(rawPassword, encodedPassword), matchTimer);
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		if (encodedPassword == null) {
+			return false;
+		}
+		Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+		return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private <T> T execute(Callable<T> task, Timer timer) {
+		Future<T> future;
+		try {
+			future = executor.submit(() -> timer.recordCallable(task));
+		} catch (RejectedExecutionException e) {
+			rejectedCounter.increment();
+			throw new PasswordHashingUnavailableException(PASSWORD_HASHING_UNAVAILABLE);
+		}
+		return await(future);
+	}
+
+	private <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			throw new PasswordHashingUnavailableException(PASSWORD_HASHING_UNAVAILABLE);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
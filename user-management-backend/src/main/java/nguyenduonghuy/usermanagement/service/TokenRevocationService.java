@@ -0,0 +1,175 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.RevokedToken;
+import nguyenduonghuy.usermanagement.domain.UserRevocation;
+import nguyenduonghuy.usermanagement.domain.VerifiedToken;
+import nguyenduonghuy.usermanagement.repository.RevokedTokenRepository;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+
+/**
+ * Denylist of revoked token ids (jti), plus a per-user cutoff for users who were locked or
+ * deactivated: every token issued to them up to that instant is rejected. Lookups go through an
+ * in-memory Bloom filter first, so the common case of a token that was never revoked costs no
+ * database query; only a Bloom hit is confirmed against {@link RevokedTokenRepository}.
+ * <p>
+ * Revocations made on other nodes are pulled in by {@link #refresh()}, which reads the token ids
+ * and user cutoffs written since the previous refresh, less {@code jwt.revocation.refresh-overlap-ms}
+ * to cover clock skew and transactions still committing. A revocation therefore takes effect
+ * everywhere at most one refresh interval after it commits.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+	private RevokedTokenRepository revokedTokenRepository;
+	private UserRepository userRepository;
+	private long expectedInsertions;
+	private double falsePositiveProbability;
+	private long refreshOverlapMillis;
+	private volatile BloomFilter<CharSequence> revokedTokenFilter;
+	// username -> epoch millis up to which its tokens are revoked, kept for one token lifetime
+	private Map<String, Long> userCutoffs = new ConcurrentHashMap<>();
+	private long refreshedAt;
+
+	@Autowired
+	public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, UserRepository userRepository,
+			@Value("${jwt.revocation.expected-insertions:" + REVOCATION_EXPECTED_INSERTIONS + "}") long expectedInsertions,
+			@Value("${jwt.revocation.false-positive-probability:" + REVOCATION_FALSE_POSITIVE_PROBABILITY + "}") double falsePositiveProbability,
+			@Value("${jwt.revocation.refresh-overlap-ms:" + REVOCATION_REFRESH_OVERLAP_MS + "}") long refreshOverlapMillis) {
+		this.revokedTokenRepository = revokedTokenRepository;
+		this.userRepository = userRepository;
+		this.expectedInsertions = expectedInsertions;
+		this.falsePositiveProbability = falsePositiveProbability;
+		this.refreshOverlapMillis = refreshOverlapMillis;
+		this.revokedTokenFilter = newFilter(0);
+	}
+
+	@PostConstruct
+	public synchronized void loadRevokedTokens() {
+		long now = System.currentTimeMillis();
+		rebuildFilter();
+		loadUserCutoffs(now - EXPIRATION_TIME);
+		refreshedAt = now;
+	}
+
+	public synchronized void revoke(String tokenId, Date expiresAt) {
+		if (tokenId == null) {
+			log.warn(TOKEN_WITHOUT_ID_CANNOT_BE_REVOKED);
+			return;
+		}
+		revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, new Date()));
+		revokedTokenFilter.put(tokenId);
+		log.info(TOKEN_REVOKED + tokenId);
+	}
+
+	/**
+	 * Applies a cutoff the caller has just written to the user row, once its transaction commits,
+	 * so this node does not wait for the next refresh.
+	 */
+	public void revokeUser(String username, LocalDateTime tokensRevokedAt) {
+		Runnable action = () -> {
+			userCutoffs.merge(username, toMillis(tokensRevokedAt), Math::max);
+			log.info(USER_TOKENS_REVOKED + username);
+		};
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	public boolean isRevoked(VerifiedToken verifiedToken) {
+		Long cutoff = userCutoffs.get(verifiedToken.getSubject());
+		// iat has second precision, so a token issued within the second of the cutoff is rejected too
+		if (cutoff != null && (verifiedToken.getIssuedAt() == null || verifiedToken.getIssuedAt().getTime() <= cutoff)) {
+			return true;
+		}
+		return isRevoked(verifiedToken.getTokenId());
+	}
+
+	public boolean isRevoked(String tokenId) {
+		if (tokenId == null || !revokedTokenFilter.mightContain(tokenId)) {
+			return false;
+		}
+		return revokedTokenRepository.existsById(tokenId);
+	}
+
+	@Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:" + REVOCATION_REFRESH_INTERVAL_MS + "}",
+			initialDelayString = "${jwt.revocation.refresh-interval-ms:" + REVOCATION_REFRESH_INTERVAL_MS + "}")
+	public synchronized void refresh() {
+		long now = System.currentTimeMillis();
+		long since = refreshedAt - refreshOverlapMillis;
+		BloomFilter<CharSequence> filter = revokedTokenFilter;
+		revokedTokenRepository.findTokenIdsRevokedSince(new Date(since), new Date(now)).forEach(filter::put);
+		loadUserCutoffs(since);
+		refreshedAt = now;
+	}
+
+	@Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:" + REVOCATION_PURGE_INTERVAL_MS + "}",
+			initialDelayString = "${jwt.revocation.purge-interval-ms:" + REVOCATION_PURGE_INTERVAL_MS + "}")
+	@Transactional
+	public void purgeExpiredTokens() {
+		long oldestLiveToken = System.currentTimeMillis() - EXPIRATION_TIME;
+		userCutoffs.values().removeIf(cutoff -> cutoff < oldestLiveToken);
+		int purged = revokedTokenRepository.deleteExpired(new Date());
+		if (purged > 0) {
+			log.info(EXPIRED_REVOKED_TOKENS_PURGED + purged);
+			rebuildFilter();
+		}
+	}
+
+	private synchronized void rebuildFilter() {
+		List<String> activeTokenIds = revokedTokenRepository.findActiveTokenIds(new Date());
+		BloomFilter<CharSequence> filter = newFilter(activeTokenIds.size());
+		activeTokenIds.forEach(filter::put);
+		revokedTokenFilter = filter;
+	}
+
+	private void loadUserCutoffs(long since) {
+		for (UserRevocation revocation : userRepository.findRevocationsSince(toLocalDateTime(since))) {
+			userCutoffs.merge(revocation.getUsername(), toMillis(revocation.getTokensRevokedAt()), Math::max);
+		}
+	}
+
+	private BloomFilter<CharSequence> newFilter(long currentInsertions) {
+		return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+				Math.max(expectedInsertions, currentInsertions * 2), falsePositiveProbability);
+	}
+
+	private static long toMillis(LocalDateTime dateTime) {
+		return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	private static LocalDateTime toLocalDateTime(long millis) {
+		return LocalDateTime.ofInstant(new Date(millis).toInstant(), ZoneId.systemDefault());
+	}
+}
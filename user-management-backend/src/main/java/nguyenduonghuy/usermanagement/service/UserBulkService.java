@@ -0,0 +1,152 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.BulkUserRequest;
+import nguyenduonghuy.usermanagement.domain.BulkUserResult;
+import nguyenduonghuy.usermanagement.domain.UserFilter;
+import nguyenduonghuy.usermanagement.domain.UserSummary;
+import nguyenduonghuy.usermanagement.enumeration.BulkAction;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.enumeration.UserEventType;
+import nguyenduonghuy.usermanagement.exception.InvalidBulkRequestException;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+
+/**
+ * Applies one admin action to many users with set-based statements. Targets are resolved to ids
+ * once, then processed in chunks of {@code user.bulk.chunk-size}, each chunk being a single
+ * {@code UPDATE ... WHERE id IN (...)} in its own transaction, so locks are short and a failure
+ * only rolls back the current chunk; deletes are tombstones too. Lock and deactivate also revoke
+ * the users' tokens in the same statement, which every node applies at its next
+ * {@link TokenRevocationService#refresh()}. Password resets differ per user and go out as one
+ * JDBC batch per chunk, with the emails queued after commit.
+ */
+@Service
+@Slf4j
+public class UserBulkService {
+	private static final String UPDATE_PASSWORD = "update user set password = ?, version = version + 1 where id = ?";
+
+	private UserRepository userRepository;
+	private JdbcTemplate jdbcTemplate;
+	private TransactionTemplate transactionTemplate;
+	private UserCacheService userCacheService;
+	private UserSearchService userSearchService;
+	private PasswordHashingService passwordHashingService;
+	private EmailQueueService emailQueueService;
+	private UserEventOutbox userEventOutbox;
+	private int chunkSize;
+
+	@Autowired
+	public UserBulkService(UserRepository userRepository, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			UserCacheService userCacheService, UserSearchService userSearchService, PasswordHashingService passwordHashingService,
+			EmailQueueService emailQueueService, UserEventOutbox userEventOutbox, @Value("${user.bulk.chunk-size:" + USER_BULK_CHUNK_SIZE + "}") int chunkSize) {
+		this.userRepository = userRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.userCacheService = userCacheService;
+		this.userSearchService = userSearchService;
+		this.passwordHashingService = passwordHashingService;
+		this.emailQueueService = emailQueueService;
+		this.userEventOutbox = userEventOutbox;
+		this.chunkSize = chunkSize;
+	}
+
+	public BulkUserResult apply(BulkAction action, BulkUserRequest request) {
+		Role role = action == BulkAction.CHANGE_ROLE ? Role.of(request.getRole()) : null;
+		if (action == BulkAction.CHANGE_ROLE && role == null) {
+			throw new InvalidBulkRequestException(BULK_ROLE_REQUIRED);
+		}
+		List<Long> ids = resolveIds(request);
+		int updated = 0;
+		for (int from = 0; from < ids.size(); from += chunkSize) {
+			List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+			updated += action == BulkAction.RESET_PASSWORD ? resetPasswords(chunk)
+					: transactionTemplate.execute(status -> applyChunk(action, role, chunk));
+		}
+		log.info(USER_BULK_APPLIED + action + ", matched: " + ids.size() + ", updated: " + updated);
+		return new BulkUserResult(action, ids.size(), updated);
+	}
+
+	private List<Long> resolveIds(BulkUserRequest request) {
+		if (request.getIds() != null && !request.getIds().isEmpty()) {
+			return new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+		}
+		UserFilter filter = request.getFilter();
+		if (filter == null || filter.isEmpty()) {
+			throw new InvalidBulkRequestException(BULK_TARGET_REQUIRED);
+		}
+		return userRepository.findIdsByFilter(filter.getRole(), filter.getActive(), filter.getNotLocked());
+	}
+
+	private int applyChunk(BulkAction action, Role role, List<Long> ids) {
+		userCacheService.evictAll(ids);
+		userEventOutbox.appendAllIds(action.getEventType(), ids);
+		switch (action) {
+		case LOCK:
+			return userRepository.lockByIdIn(ids, LocalDateTime.now());
+		case UNLOCK:
+			return userRepository.updateNotLockedByIdIn(ids, true);
+		case ACTIVATE:
+			return userRepository.updateActiveByIdIn(ids, true);
+		case DEACTIVATE:
+			return userRepository.deactivateByIdIn(ids, LocalDateTime.now());
+		case CHANGE_ROLE:
+			return userRepository.updateRoleByIdIn(ids, role.name());
+		case DELETE:
+			return delete(ids);
+		default:
+			throw new InvalidBulkRequestException(UNSUPPORTED_BULK_ACTION + action);
+		}
+	}
+
+	/**
+	 * Tombstones like a single delete; avatar folders and rows are left to {@link UserReaperService}.
+	 */
+	private int delete(List<Long> ids) {
+		int deleted = userRepository.tombstoneByIdIn(ids, LocalDateTime.now());
+		ids.forEach(userSearchService::remove);
+		return deleted;
+	}
+
+	/**
+	 * Hashes outside the transaction so no connection is held during bcrypt.
+	 */
+	private int resetPasswords(List<Long> ids) {
+		List<UserSummary> users = userRepository.findSummariesByIdIn(ids);
+		List<String> passwords = users.stream().map(user -> RandomStringUtils.randomAlphanumeric(10)).collect(Collectors.toList());
+		List<String> encodedPasswords = passwordHashingService.encodeAll(passwords);
+		List<Object[]> batch = new ArrayList<>(users.size());
+		for (int i = 0; i < users.size(); i++) {
+			batch.add(new Object[] { encodedPasswords.get(i), users.get(i).getId() });
+		}
+		return transactionTemplate.execute(status -> {
+			userCacheService.evictAll(ids);
+			userEventOutbox.appendAllIds(UserEventType.PASSWORD_RESET, users.stream().map(UserSummary::getId).collect(Collectors.toList()));
+			int updated = 0;
+			for (int count : jdbcTemplate.batchUpdate(UPDATE_PASSWORD, batch)) {
+				// Rewritten MySQL batches report SUCCESS_NO_INFO per statement
+				updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+			}
+			for (int i = 0; i < users.size(); i++) {
+				emailQueueService.enqueueNewPassword(users.get(i).getFullname(), passwords.get(i), users.get(i).getEmail());
+			}
+			return updated;
+		});
+	}
+}
@@ -0,0 +1,165 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+
+/**
+ * Read-through cache of users by id, with username and email indexes pointing at the id.
+ * <p>
+ * Entries are detached copies: callers get their own instance and can never mutate what other
+ * threads read. Only found users are cached, so existence checks stay exact on this node. Writers
+ * call {@link #evict(User)} with the user as it was before the change; the entry is dropped at
+ * once and again after the surrounding transaction commits, so a read that raced the write cannot
+ * leave the old lock or active flags behind.
+ */
+@Service
+public class UserCacheService implements UserEventSubscriber {
+
+	private Cache<Long, User> usersById;
+	private Cache<String, Long> idsByUsername;
+	private Cache<String, Long> idsByEmail;
+
+	@Autowired
+	public UserCacheService(MeterRegistry meterRegistry,
+			@Value("${user.cache.maximum-size:" + USER_CACHE_MAXIMUM_SIZE + "}") long maximumSize,
+			@Value("${user.cache.expire-after-write-seconds:" + USER_CACHE_EXPIRE_AFTER_WRITE_SECONDS + "}") long expireAfterWriteSeconds) {
+		Duration expireAfterWrite = Duration.ofSeconds(expireAfterWriteSeconds);
+		this.usersById = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats().build();
+		this.idsByUsername = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats().build();
+		this.idsByEmail = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite).recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.by_id");
+		CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "users.by_username");
+		CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.by_email");
+	}
+
+	public User getById(Long id, Function<Long, Optional<User>> loader) {
+		User user = usersById.getIfPresent(id);
+		if (user == null) {
+			return loader.apply(id).map(this::put).orElse(null);
+		}
+		return copy(user);
+	}
+
+	public User getByUsername(String username, Function<String, User> loader) {
+		Long id = idsByUsername.getIfPresent(username);
+		User user = id == null ? null : usersById.getIfPresent(id);
+		if (user == null || !username.equals(user.getUsername())) {
+			return put(loader.apply(username));
+		}
+		return copy(user);
+	}
+
+	public User getByEmail(String email, Function<String, User> loader) {
+		Long id = idsByEmail.getIfPresent(email);
+		User user = id == null ? null : usersById.getIfPresent(id);
+		if (user == null || !email.equals(user.getEmail())) {
+			return put(loader.apply(email));
+		}
+		return copy(user);
+	}
+
+	/**
+	 * Caches a copy of the user and returns the argument itself.
+	 */
+	public User put(User user) {
+		if (user != null && user.getId() != null) {
+			usersById.put(user.getId(), copy(user));
+			if (user.getUsername() != null) {
+				idsByUsername.put(user.getUsername(), user.getId());
+			}
+			if (user.getEmail() != null) {
+				idsByEmail.put(user.getEmail(), user.getId());
+			}
+		}
+		return user;
+	}
+
+	public void evict(User user) {
+		if (user == null) {
+			return;
+		}
+		Long id = user.getId();
+		String username = user.getUsername();
+		String email = user.getEmail();
+		invalidate(id, username, email);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					invalidate(id, username, email);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Evicts users changed by a set-based statement. Dropping the id entry is enough: username and
+	 * email lookups resolve through it and reload when it is gone.
+	 */
+	public void evictAll(Collection<Long> ids) {
+		List<Long> evicted = new ArrayList<>(ids);
+		usersById.invalidateAll(evicted);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					usersById.invalidateAll(evicted);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Drops users changed on any node, so other nodes no longer wait for the entries to expire.
+	 * This node's own writes come back too and only cost a reload.
+	 */
+	@Override
+	public void onUserEvents(List<UserEvent> events) {
+		usersById.invalidateAll(events.stream().map(UserEvent::getUserId).collect(Collectors.toSet()));
+	}
+
+	public void evictAll() {
+		usersById.invalidateAll();
+		idsByUsername.invalidateAll();
+		idsByEmail.invalidateAll();
+	}
+
+	private void invalidate(Long id, String username, String email) {
+		if (id != null) {
+			usersById.invalidate(id);
+		}
+		if (username != null) {
+			idsByUsername.invalidate(username);
+		}
+		if (email != null) {
+			idsByEmail.invalidate(email);
+		}
+	}
+
+	private static User copy(User user) {
+		return new User(user.getId(), user.getUserId(), user.getFullname(), user.getUsername(), user.getPassword(), user.getEmail(),
+				user.getAvatar(), user.getLastLoginDateDisplay(), user.getLastLoginDate(), user.getJoinDate(), user.getRole(),
+				user.isActive(), user.isNotLocked(), user.getUsernameKey(), user.getEmailKey(), user.getDeletedAt(), user.getTokensRevokedAt(), user.getVersion());
+	}
+}
@@ -0,0 +1,49 @@
+package nguyenduonghuy.usermanagement.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.enumeration.UserEventType;
+
+/**
+ * Appends user change events to the {@code user_event} outbox. Writes go through the caller's
+ * transaction, so an event exists exactly when the change it describes was committed; the
+ * {@link UserEventRelay} publishes it afterwards. Set-based writes append one JDBC batch.
+ */
+@Service
+public class UserEventOutbox {
+	private static final String INSERT_EVENT = "insert into user_event (user_id, type, username, email, created_at) values (?, ?, ?, ?, ?)";
+
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	public UserEventOutbox(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	public void append(UserEventType type, User user) {
+		jdbcTemplate.update(INSERT_EVENT, user.getId(), type.name(), user.getUsername(), user.getEmail(), Timestamp.valueOf(LocalDateTime.now()));
+	}
+
+	public void appendAll(UserEventType type, Collection<User> users) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		List<Object[]> batch = new ArrayList<>(users.size());
+		users.forEach(user -> batch.add(new Object[] { user.getId(), type.name(), user.getUsername(), user.getEmail(), now }));
+		jdbcTemplate.batchUpdate(INSERT_EVENT, batch);
+	}
+
+	public void appendAllIds(UserEventType type, Collection<Long> ids) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		List<Object[]> batch = new ArrayList<>(ids.size());
+		ids.forEach(id -> batch.add(new Object[] { id, type.name(), null, null, now }));
+		jdbcTemplate.batchUpdate(INSERT_EVENT, batch);
+	}
+}
@@ -0,0 +1,87 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+import nguyenduonghuy.usermanagement.repository.UserEventRepository;
+
+/**
+ * Moves committed outbox events to the {@link UserEventTransport} in batches of
+ * {@code user.events.batch-size}. Each batch is locked, stamped with {@code relayed_at}, published
+ * and committed in one transaction: a failed publish rolls the stamp back and the batch is sent
+ * again on the next run, so delivery is at least once. Relayed events are kept for
+ * {@code user.events.retention-seconds} so that polling transports and late readers can catch up.
+ */
+@Service
+@Slf4j
+public class UserEventRelay {
+
+	private UserEventRepository userEventRepository;
+	private UserEventTransport userEventTransport;
+	private TransactionTemplate transactionTemplate;
+	private int batchSize;
+	private long retentionSeconds;
+	private Timer batchTimer;
+	private Counter relayedCounter;
+
+	@Autowired
+	public UserEventRelay(UserEventRepository userEventRepository, UserEventTransport userEventTransport,
+			PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+			@Value("${user.events.batch-size:" + USER_EVENT_BATCH_SIZE + "}") int batchSize,
+			@Value("${user.events.retention-seconds:" + USER_EVENT_RETENTION_SECONDS + "}") long retentionSeconds) {
+		this.userEventRepository = userEventRepository;
+		this.userEventTransport = userEventTransport;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.retentionSeconds = retentionSeconds;
+		this.batchTimer = Timer.builder("users.events.relay").description("Time spent relaying one batch of user events").register(meterRegistry);
+		this.relayedCounter = Counter.builder("users.events.relayed").description("User events handed to the transport").register(meterRegistry);
+	}
+
+	/**
+	 * Relays every pending event and returns how many were published.
+	 */
+	@Scheduled(fixedDelayString = "${user.events.relay-interval-ms:" + USER_EVENT_RELAY_INTERVAL_MS + "}")
+	public synchronized int relay() {
+		int relayed = 0;
+		try {
+			int published;
+			do {
+				published = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+				relayed += published;
+			} while (published == batchSize);
+			LocalDateTime expired = LocalDateTime.now().minusSeconds(retentionSeconds);
+			transactionTemplate.execute(status -> userEventRepository.deleteRelayedBefore(expired));
+		} catch (RuntimeException e) {
+			log.error(USER_EVENT_RELAY_FAILED + relayed, e);
+		}
+		return relayed;
+	}
+
+	private int relayBatch() {
+		List<UserEvent> events = userEventRepository.findPendingForUpdate(PageRequest.of(0, batchSize));
+		if (events.isEmpty()) {
+			return 0;
+		}
+		LocalDateTime relayedAt = LocalDateTime.now();
+		events.forEach(event -> event.setRelayedAt(relayedAt));
+		userEventTransport.publish(events);
+		relayedCounter.increment(events.size());
+		return events.size();
+	}
+}
@@ -0,0 +1,15 @@
+package nguyenduonghuy.usermanagement.service;
+
+import java.util.List;
+
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+
+/**
+ * In-process consumer of user change events. Every bean implementing it is registered with the
+ * {@link UserEventTransport}. Delivery is at least once and in outbox order per batch, so
+ * subscribers must tolerate seeing an event twice.
+ */
+public interface UserEventSubscriber {
+
+	void onUserEvents(List<UserEvent> events);
+}
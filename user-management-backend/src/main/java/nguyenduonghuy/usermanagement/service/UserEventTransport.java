@@ -0,0 +1,15 @@
+package nguyenduonghuy.usermanagement.service;
+
+import java.util.List;
+
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+
+/**
+ * Carries relayed user events to the {@link UserEventSubscriber}s of every node. Implementations
+ * are selected with {@code user.events.transport}: {@code memory} (default) delivers to this JVM
+ * only, {@code jdbc} lets every node pointed at the same database poll the relayed events.
+ */
+public interface UserEventTransport {
+
+	void publish(List<UserEvent> events);
+}
@@ -0,0 +1,149 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.enumeration.ExportFormat;
+
+/**
+ * Writes every user to an output stream as NDJSON or CSV. Rows come from a forward-only cursor
+ * and each entity is detached once written, so memory stays flat regardless of table size. The
+ * password hash and authorities are never exported.
+ * <p>
+ * The fetch size is set on this query only ({@code user.export.fetch-size}). On MySQL it is
+ * {@link Integer#MIN_VALUE}, which makes Connector/J stream the rows one at a time instead of
+ * buffering the whole result, without turning on server-side cursors for every other query.
+ */
+@Service
+public class UserExportService {
+	private static final String[] COLUMNS = { "id", "userId", "fullname", "username", "email", "role",
+			"isActive", "isNotLocked", "joinDate", "lastLoginDate" };
+
+	private EntityManager entityManager;
+	private int fetchSize;
+	private TransactionTemplate transactionTemplate;
+	private JsonFactory jsonFactory = new JsonFactory();
+
+	@Autowired
+	public UserExportService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+			@Value("${user.export.fetch-size:" + USER_EXPORT_FETCH_SIZE + "}") int fetchSize) {
+		this.entityManager = entityManager;
+		this.fetchSize = fetchSize;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+	}
+
+	public void export(ExportFormat format, OutputStream outputStream) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				try (Stream<User> users = streamAll()) {
+					if (format == ExportFormat.CSV) {
+						writeCsvRow(writer, COLUMNS);
+					}
+					int rows = 0;
+					for (Iterator<User> iterator = users.iterator(); iterator.hasNext();) {
+						User user = iterator.next();
+						if (format == ExportFormat.CSV) {
+							writeCsv(writer, user);
+						} else {
+							writeJson(writer, user);
+						}
+						entityManager.detach(user);
+						if (++rows % USER_EXPORT_FLUSH_ROWS == 1) {
+							writer.flush();
+						}
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		writer.flush();
+	}
+
+	private Stream<User> streamAll() {
+		return entityManager.createQuery("select u from User u order by u.id", User.class)
+				.setHint(HINT_FETCH_SIZE, fetchSize)
+				.setHint(HINT_READONLY, true)
+				.setHint(HINT_CACHEABLE, false)
+				.getResultStream();
+	}
+
+	private void writeJson(Writer writer, User user) throws IOException {
+		JsonGenerator generator = jsonFactory.createGenerator(writer);
+		generator.writeStartObject();
+		generator.writeNumberField(COLUMNS[0], user.getId());
+		generator.writeStringField(COLUMNS[1], user.getUserId());
+		generator.writeStringField(COLUMNS[2], user.getFullname());
+		generator.writeStringField(COLUMNS[3], user.getUsername());
+		generator.writeStringField(COLUMNS[4], user.getEmail());
+		generator.writeStringField(COLUMNS[5], user.getRole());
+		generator.writeBooleanField(COLUMNS[6], user.isActive());
+		generator.writeBooleanField(COLUMNS[7], user.isNotLocked());
+		generator.writeStringField(COLUMNS[8], toString(user.getJoinDate()));
+		generator.writeStringField(COLUMNS[9], toString(user.getLastLoginDate()));
+		generator.writeEndObject();
+		generator.flush();
+		writer.write('\n');
+	}
+
+	private void writeCsv(Writer writer, User user) throws IOException {
+		writeCsvRow(writer, String.valueOf(user.getId()), user.getUserId(), user.getFullname(), user.getUsername(), user.getEmail(),
+				user.getRole(), String.valueOf(user.isActive()), String.valueOf(user.isNotLocked()),
+				toString(user.getJoinDate()), toString(user.getLastLoginDate()));
+	}
+
+	private void writeCsvRow(Writer writer, String... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writeCsvValue(writer, values[i]);
+		}
+		writer.write("\r\n");
+	}
+
+	private void writeCsvValue(Writer writer, String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	private static String toString(Object value) {
+		return value == null ? null : value.toString();
+	}
+}
@@ -0,0 +1,10 @@
+package nguyenduonghuy.usermanagement.service;
+
+/**
+ * Source of the public {@code userId} of new users. Implementations must be thread-safe and
+ * return ids that are unique without consulting the database.
+ */
+public interface UserIdGenerator {
+
+	String nextId();
+}
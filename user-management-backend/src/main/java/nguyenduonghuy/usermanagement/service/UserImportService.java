@@ -0,0 +1,348 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserImportReport;
+import nguyenduonghuy.usermanagement.domain.UserImportResult;
+import nguyenduonghuy.usermanagement.domain.UserKey;
+import nguyenduonghuy.usermanagement.enumeration.ExportFormat;
+import nguyenduonghuy.usermanagement.enumeration.ImportStatus;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.enumeration.UserEventType;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.utils.UniqueConstraints;
+
+/**
+ * Creates users in bulk from a CSV or JSON stream. The input is read row by row and processed in
+ * chunks: each chunk is checked against existing users with one set-wise key query, its passwords
+ * are hashed in parallel and it is inserted in one transaction through Hibernate JDBC batching.
+ * New password emails are queued after the chunk commits. Accepts the columns of the CSV export,
+ * so an export can be imported as is; unknown columns are ignored.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+	private static final String FULLNAME = "fullname";
+	private static final String USERNAME = "username";
+	private static final String EMAIL = "email";
+	private static final String ROLE = "role";
+	private static final String[] ACTIVE = { "isactive", "active" };
+	private static final String[] NOT_LOCKED = { "isnotlocked", "notlocked" };
+
+	private UserRepository userRepository;
+	private EntityManager entityManager;
+	private TransactionTemplate transactionTemplate;
+	private PasswordHashingService passwordHashingService;
+	private EmailQueueService emailQueueService;
+	private UserSearchService userSearchService;
+	private UserIdGenerator userIdGenerator;
+	private UserEventOutbox userEventOutbox;
+	private Validator validator;
+	private ObjectMapper objectMapper;
+	private int chunkSize;
+	private int maxRows;
+
+	@Autowired
+	public UserImportService(UserRepository userRepository, EntityManager entityManager, PlatformTransactionManager transactionManager,
+			PasswordHashingService passwordHashingService, EmailQueueService emailQueueService, UserSearchService userSearchService,
+			UserIdGenerator userIdGenerator, UserEventOutbox userEventOutbox, Validator validator, ObjectMapper objectMapper,
+			@Value("${user.import.chunk-size:" + USER_IMPORT_CHUNK_SIZE + "}") int chunkSize,
+			@Value("${user.import.max-rows:" + USER_IMPORT_MAX_ROWS + "}") int maxRows) {
+		this.userRepository = userRepository;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.passwordHashingService = passwordHashingService;
+		this.emailQueueService = emailQueueService;
+		this.userSearchService = userSearchService;
+		this.userIdGenerator = userIdGenerator;
+		this.userEventOutbox = userEventOutbox;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.chunkSize = chunkSize;
+		this.maxRows = maxRows;
+	}
+
+	public UserImportReport importUsers(ExportFormat format, InputStream inputStream) throws IOException {
+		UserImportReport report = new UserImportReport();
+		Set<String> seenUsernames = new HashSet<>();
+		Set<String> seenEmails = new HashSet<>();
+		List<ImportRow> chunk = new ArrayList<>(chunkSize);
+		Iterator<Map<String, String>> records = format == ExportFormat.CSV
+				? new CsvRecords(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)))
+				: jsonRecords(inputStream);
+		int rowNumber = 0;
+		while (records.hasNext()) {
+			if (rowNumber == maxRows) {
+				report.markTruncated();
+				break;
+			}
+			ImportRow row = new ImportRow(++rowNumber, records.next());
+			String problem = validate(row);
+			if (problem != null) {
+				report.add(row.result(ImportStatus.INVALID, problem));
+			} else if (!seenUsernames.add(row.usernameKey)) {
+				report.add(row.result(ImportStatus.DUPLICATE_USERNAME, USERNAME_ALREADY_EXISTS));
+			} else if (!seenEmails.add(row.emailKey)) {
+				report.add(row.result(ImportStatus.DUPLICATE_EMAIL, EMAIL_ALREADY_EXISTS));
+			} else {
+				chunk.add(row);
+				if (chunk.size() == chunkSize) {
+					importChunk(chunk, report);
+					chunk.clear();
+				}
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, report);
+		}
+		report.getResults().sort(Comparator.comparingInt(UserImportResult::getRow));
+		log.info(USER_IMPORT_FINISHED + report.getCreated() + ", failed: " + report.getFailed());
+		return report;
+	}
+
+	private void importChunk(List<ImportRow> chunk, UserImportReport report) {
+		Set<String> takenUsernames = new HashSet<>();
+		Set<String> takenEmails = new HashSet<>();
+		List<UserKey> existing = userRepository.findKeysByUsernameKeyInOrEmailKeyIn(
+				chunk.stream().map(row -> row.usernameKey).collect(Collectors.toList()),
+				chunk.stream().map(row -> row.emailKey).collect(Collectors.toList()));
+		for (UserKey key : existing) {
+			takenUsernames.add(key.getUsernameKey());
+			takenEmails.add(key.getEmailKey());
+		}
+		List<ImportRow> accepted = new ArrayList<>(chunk.size());
+		for (ImportRow row : chunk) {
+			if (takenUsernames.contains(row.usernameKey)) {
+				report.add(row.result(ImportStatus.DUPLICATE_USERNAME, USERNAME_ALREADY_EXISTS));
+			} else if (takenEmails.contains(row.emailKey)) {
+				report.add(row.result(ImportStatus.DUPLICATE_EMAIL, EMAIL_ALREADY_EXISTS));
+			} else {
+				row.password = RandomStringUtils.randomAlphanumeric(10);
+				accepted.add(row);
+			}
+		}
+		if (accepted.isEmpty()) {
+			return;
+		}
+		List<String> encodedPasswords = passwordHashingService.encodeAll(
+				accepted.stream().map(row -> row.password).collect(Collectors.toList()));
+		for (int i = 0; i < accepted.size(); i++) {
+			accepted.get(i).user.setPassword(encodedPasswords.get(i));
+		}
+		try {
+			insert(accepted);
+			accepted.forEach(row -> report.add(row.result(ImportStatus.CREATED, null)));
+		} catch (DataIntegrityViolationException e) {
+			// A concurrent writer or a tombstoned row took a key after the check; settle each row on
+			// its own. The failed flush left an id and version on every user, so clear both or save()
+			// would merge a copy and leave row.user without an id.
+			for (ImportRow row : accepted) {
+				row.user.setId(null);
+				row.user.setVersion(null);
+				try {
+					insert(Collections.singletonList(row));
+					report.add(row.result(ImportStatus.CREATED, null));
+				} catch (DataIntegrityViolationException violation) {
+					report.add(UniqueConstraints.isViolated(violation, User.USERNAME_KEY_CONSTRAINT)
+							? row.result(ImportStatus.DUPLICATE_USERNAME, USERNAME_ALREADY_EXISTS)
+							: row.result(ImportStatus.DUPLICATE_EMAIL, EMAIL_ALREADY_EXISTS));
+				}
+			}
+		}
+	}
+
+	private void insert(List<ImportRow> rows) {
+		transactionTemplate.executeWithoutResult(status -> {
+			for (ImportRow row : rows) {
+				userRepository.save(row.user);
+				userSearchService.index(row.user);
+				emailQueueService.enqueueNewPassword(row.user.getFullname(), row.password, row.user.getEmail());
+			}
+			userRepository.flush();
+			userEventOutbox.appendAll(UserEventType.CREATED, rows.stream().map(row -> row.user).collect(Collectors.toList()));
+			entityManager.clear();
+		});
+	}
+
+	private String validate(ImportRow row) {
+		String roleName = row.record.get(ROLE);
+		Role role = StringUtils.isBlank(roleName) ? Role.ROLE_USER : Role.of(roleName.trim().toUpperCase());
+		if (role == null) {
+			return UNKNOWN_ROLE + roleName;
+		}
+		User user = new User(StringUtils.trim(row.record.get(FULLNAME)), StringUtils.trim(row.record.get(USERNAME)),
+				StringUtils.trim(row.record.get(EMAIL)));
+		user.setUserId(userIdGenerator.nextId());
+		user.setJoinDate(LocalDateTime.now());
+		user.setRole(role.name());
+		user.setActive(flag(row.record, ACTIVE));
+		user.setNotLocked(flag(row.record, NOT_LOCKED));
+		Set<ConstraintViolation<User>> violations = validator.validate(user);
+		if (!violations.isEmpty()) {
+			return violations.stream().map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+					.sorted().collect(Collectors.joining("; "));
+		}
+		row.user = user;
+		row.usernameKey = User.normalizeKey(user.getUsername());
+		row.emailKey = User.normalizeKey(user.getEmail());
+		return null;
+	}
+
+	private static boolean flag(Map<String, String> record, String[] names) {
+		for (String name : names) {
+			String value = record.get(name);
+			if (StringUtils.isNotBlank(value)) {
+				return Boolean.parseBoolean(value.trim());
+			}
+		}
+		return true;
+	}
+
+	private Iterator<Map<String, String>> jsonRecords(InputStream inputStream) throws IOException {
+		MappingIterator<Map<String, Object>> values = objectMapper.readerFor(Map.class).readValues(inputStream);
+		return new Iterator<Map<String, String>>() {
+			@Override
+			public boolean hasNext() {
+				return values.hasNext();
+			}
+
+			@Override
+			public Map<String, String> next() {
+				Map<String, String> record = new HashMap<>();
+				values.next().forEach((name, value) -> record.put(name.toLowerCase(), value == null ? null : value.toString()));
+				return record;
+			}
+		};
+	}
+
+	private static class ImportRow {
+		private int row;
+		private Map<String, String> record;
+		private User user;
+		private String usernameKey;
+		private String emailKey;
+		private String password;
+
+		private ImportRow(int row, Map<String, String> record) {
+			this.row = row;
+			this.record = record;
+		}
+
+		private UserImportResult result(ImportStatus status, String message) {
+			return new UserImportResult(row, record.get(USERNAME), status, status == ImportStatus.CREATED ? user.getId() : null, message);
+		}
+	}
+
+	/**
+	 * RFC 4180 records keyed by the lower-cased header names. Quoted values may contain commas,
+	 * quotes and line breaks; blank lines are skipped.
+	 */
+	private static class CsvRecords implements Iterator<Map<String, String>> {
+		private Reader reader;
+		private List<String> header;
+		private List<String> next;
+
+		private CsvRecords(Reader reader) throws IOException {
+			this.reader = reader;
+			List<String> names = read();
+			this.header = names == null ? Collections.emptyList()
+					: names.stream().map(name -> name.trim().toLowerCase()).collect(Collectors.toList());
+			this.next = read();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map<String, String> next() {
+			Map<String, String> record = new HashMap<>();
+			for (int i = 0; i < header.size() && i < next.size(); i++) {
+				record.put(header.get(i), next.get(i));
+			}
+			try {
+				next = read();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return record;
+		}
+
+		private List<String> read() throws IOException {
+			List<String> values = new ArrayList<>();
+			StringBuilder value = new StringBuilder();
+			boolean quoted = false;
+			int c;
+			while ((c = reader.read()) >= 0) {
+				if (quoted) {
+					if (c != '"') {
+						value.append((char) c);
+						continue;
+					}
+					reader.mark(1);
+					if (reader.read() == '"') {
+						value.append('"');
+					} else {
+						reader.reset();
+						quoted = false;
+					}
+				} else if (c == '"') {
+					quoted = true;
+				} else if (c == ',') {
+					values.add(value.toString());
+					value.setLength(0);
+				} else if (c == '\n') {
+					if (values.isEmpty() && value.length() == 0) {
+						continue;
+					}
+					break;
+				} else if (c != '\r') {
+					value.append((char) c);
+				}
+			}
+			if (c < 0 && values.isEmpty() && value.length() == 0) {
+				return null;
+			}
+			values.add(value.toString());
+			return values;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.FileConstant.USER_FOLDER;
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.tomcat.util.http.fileupload.FileUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.UserTombstone;
+
+/**
+ * Finishes user deletions in the background. Deleting a user only stamps {@code deleted_at}, which
+ * hides it from every read at once and keeps its username and email reserved. Each run picks up to
+ * {@code user.reaper.batch-size} tombstones older than the grace period, removes their avatar
+ * folders and then deletes their rows in one JDBC batch.
+ * <p>
+ * A user whose folder cannot be removed keeps its row and is retried on the next run. After
+ * {@code user.reaper.max-attempts} failed runs the row is deleted anyway and the folder is logged
+ * for manual cleanup, so one bad directory cannot hold up the rest.
+ */
+@Service
+@Slf4j
+public class UserReaperService {
+	private static final String SELECT_TOMBSTONES = "select id, username from user where deleted_at < ? order by deleted_at, id limit ?";
+	private static final String DELETE_TOMBSTONE = "delete from user where id = ? and deleted_at is not null";
+
+	private JdbcTemplate jdbcTemplate;
+	private long gracePeriodSeconds;
+	private int batchSize;
+	private int maxAttempts;
+	private Map<Long, Integer> failedAttempts = new ConcurrentHashMap<>();
+	private Timer runTimer;
+	private Counter reapedCounter;
+	private Counter retriedCounter;
+	private Counter abandonedCounter;
+
+	@Autowired
+	public UserReaperService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+			@Value("${user.reaper.grace-period-seconds:" + USER_REAPER_GRACE_PERIOD_SECONDS + "}") long gracePeriodSeconds,
+			@Value("${user.reaper.batch-size:" + USER_REAPER_BATCH_SIZE + "}") int batchSize,
+			@Value("${user.reaper.max-attempts:" + USER_REAPER_MAX_ATTEMPTS + "}") int maxAttempts) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.gracePeriodSeconds = gracePeriodSeconds;
+		this.batchSize = batchSize;
+		this.maxAttempts = maxAttempts;
+		this.runTimer = Timer.builder("users.reaper.run").description("Time spent per reaper run").register(meterRegistry);
+		this.reapedCounter = Counter.builder("users.reaper.reaped").description("Deleted users removed for good").register(meterRegistry);
+		this.retriedCounter = Counter.builder("users.reaper.retried").description("Avatar folder removals left for the next run").register(meterRegistry);
+		this.abandonedCounter = Counter.builder("users.reaper.abandoned").description("Avatar folders given up after every attempt").register(meterRegistry);
+	}
+
+	/**
+	 * Reaps one batch and returns the number of rows deleted.
+	 */
+	@Scheduled(fixedDelayString = "${user.reaper.interval-ms:" + USER_REAPER_INTERVAL_MS + "}",
+			initialDelayString = "${user.reaper.interval-ms:" + USER_REAPER_INTERVAL_MS + "}")
+	public synchronized int reap() {
+		return runTimer.record(this::reapBatch);
+	}
+
+	private int reapBatch() {
+		Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusSeconds(gracePeriodSeconds));
+		List<UserTombstone> tombstones = jdbcTemplate.query(SELECT_TOMBSTONES,
+				(resultSet, row) -> new UserTombstone(resultSet.getLong("id"), resultSet.getString("username")), cutoff, batchSize);
+		List<Object[]> batch = new ArrayList<>(tombstones.size());
+		for (UserTombstone tombstone : tombstones) {
+			if (removeAvatarFolder(tombstone)) {
+				batch.add(new Object[] { tombstone.getId() });
+			}
+		}
+		if (batch.isEmpty()) {
+			return 0;
+		}
+		int reaped = 0;
+		try {
+			for (int count : jdbcTemplate.batchUpdate(DELETE_TOMBSTONE, batch)) {
+				reaped += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+			}
+		} catch (DataAccessException e) {
+			// Folders already gone are simply skipped when the rows are retried
+			log.error(USER_REAPER_FAILED + batch.size(), e);
+			return 0;
+		}
+		batch.forEach(row -> failedAttempts.remove(row[0]));
+		reapedCounter.increment(reaped);
+		log.info(USER_REAPER_REAPED + reaped);
+		return reaped;
+	}
+
+	/**
+	 * Returns whether the row can go: the folder is gone, or it has failed too often to keep trying.
+	 */
+	private boolean removeAvatarFolder(UserTombstone tombstone) {
+		Path userFolder = Paths.get(USER_FOLDER + tombstone.getUsername()).toAbsolutePath().normalize();
+		try {
+			FileUtils.deleteDirectory(userFolder.toFile());
+			return true;
+		} catch (IOException e) {
+			int attempts = failedAttempts.merge(tombstone.getId(), 1, Integer::sum);
+			if (attempts < maxAttempts) {
+				retriedCounter.increment();
+				log.warn(USER_REAPER_RETRY + userFolder, e);
+				return false;
+			}
+			abandonedCounter.increment();
+			log.error(USER_REAPER_GAVE_UP + userFolder, e);
+			return true;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package nguyenduonghuy.usermanagement.service;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+import static nguyenduonghuy.usermanagement.repository.UserRepository.USER_SUMMARY;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Lists;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+import nguyenduonghuy.usermanagement.domain.UserSummary;
+import nguyenduonghuy.usermanagement.exception.InvalidSearchQueryException;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.utils.TrigramIndex;
+
+/**
+ * Substring search over username, email and fullname backed by a {@link TrigramIndex}. The index
+ * is built from a streaming scan before the application takes traffic and kept current by the
+ * write paths of {@code UserServiceImpl}, which apply their changes after commit, and by relayed
+ * user events for changes made on other nodes. Only the ranked page of hits is read back from the
+ * database, by primary key.
+ * <p>
+ * The startup scan uses the export fetch size ({@code user.export.fetch-size}), so on MySQL it
+ * streams rows instead of buffering the whole table.
+ */
+@Service
+@Slf4j
+public class UserSearchService implements UserEventSubscriber {
+	private static final int REINDEX_CHUNK_SIZE = 500;
+
+	private UserRepository userRepository;
+	private EntityManager entityManager;
+	private int fetchSize;
+	private TransactionTemplate transactionTemplate;
+	private TrigramIndex index = new TrigramIndex();
+	private Timer searchTimer;
+
+	@Autowired
+	public UserSearchService(UserRepository userRepository, EntityManager entityManager, PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry, @Value("${user.export.fetch-size:" + USER_EXPORT_FETCH_SIZE + "}") int fetchSize) {
+		this.userRepository = userRepository;
+		this.entityManager = entityManager;
+		this.fetchSize = fetchSize;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.searchTimer = Timer.builder("users.search").description("Time to rank user search hits in the index")
+				.publishPercentiles(0.5, 0.99).register(meterRegistry);
+	}
+
+	@PostConstruct
+	public void buildIndex() {
+		transactionTemplate.executeWithoutResult(status -> {
+			try (Stream<UserSummary> users = entityManager.createQuery("select new " + USER_SUMMARY + " from User u order by u.id", UserSummary.class)
+					.setHint(HINT_FETCH_SIZE, fetchSize)
+					.getResultStream()) {
+				users.forEach(user -> index.put(user.getId(), user.getUsername(), user.getEmail(), user.getFullname()));
+			}
+		});
+		log.info(USER_SEARCH_INDEX_BUILT + index.size());
+	}
+
+	public void index(User user) {
+		Long id = user.getId();
+		String username = user.getUsername();
+		String email = user.getEmail();
+		String fullname = user.getFullname();
+		afterCommit(() -> index.put(id, username, email, fullname));
+	}
+
+	public void remove(Long id) {
+		afterCommit(() -> index.remove(id));
+	}
+
+	/**
+	 * Re-reads the users named by the events and reindexes them, or drops them from the index when
+	 * they no longer exist. Events only carry ids, so the current row is the source of truth and a
+	 * repeated or out-of-order event is harmless.
+	 */
+	@Override
+	public void onUserEvents(List<UserEvent> events) {
+		Set<Long> ids = events.stream().map(UserEvent::getUserId).collect(Collectors.toSet());
+		for (List<Long> chunk : Lists.partition(new ArrayList<>(ids), REINDEX_CHUNK_SIZE)) {
+			List<UserSummary> users = userRepository.findSummariesByIdIn(chunk);
+			for (UserSummary user : users) {
+				index.put(user.getId(), user.getUsername(), user.getEmail(), user.getFullname());
+				ids.remove(user.getId());
+			}
+		}
+		ids.forEach(index::remove);
+	}
+
+	public List<UserSummary> search(String query, Integer limit) {
+		if (TrigramIndex.normalize(query).length() < TrigramIndex.MIN_QUERY_LENGTH) {
+			throw new InvalidSearchQueryException(SEARCH_QUERY_TOO_SHORT);
+		}
+		int maxResults = limit == null ? USER_SEARCH_DEFAULT_LIMIT : Math.max(1, Math.min(limit, USER_SEARCH_MAX_LIMIT));
+		long[] ids = searchTimer.record(() -> index.search(query, maxResults));
+		if (ids.length == 0) {
+			return Collections.emptyList();
+		}
+		List<Long> rankedIds = Arrays.stream(ids).boxed().collect(Collectors.toList());
+		Map<Long, UserSummary> usersById = userRepository.findSummariesByIdIn(rankedIds).stream()
+				.collect(Collectors.toMap(UserSummary::getId, Function.identity()));
+		List<UserSummary> users = new ArrayList<>(ids.length);
+		for (Long id : rankedIds) {
+			UserSummary user = usersById.get(id);
+			if (user != null) {
+				users.add(user);
+			}
+		}
+		return users;
+	}
+
+	public int size() {
+		return index.size();
+	}
+
+	private void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
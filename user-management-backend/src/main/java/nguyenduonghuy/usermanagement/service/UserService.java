@@ -8,6 +8,9 @@ import javax.mail.MessagingException;
 import org.springframework.web.multipart.MultipartFile;
 
 import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserDetail;
+import nguyenduonghuy.usermanagement.domain.UserPage;
+import nguyenduonghuy.usermanagement.domain.UserVersion;
 import nguyenduonghuy.usermanagement.exception.EmailExistException;
 import nguyenduonghuy.usermanagement.exception.EmailNotFoundException;
 import nguyenduonghuy.usermanagement.exception.NotAnImageFileException;
@@ -18,17 +21,23 @@ public interface UserService {
 	
     List<User> getAll();
 
+    UserPage getPage(String cursor, Integer size, String sort);
+
     User findByUsername(String username);
 
+    UserDetail getDetail(String username) throws UserNotFoundException;
+
+    UserVersion getVersion(String username) throws UserNotFoundException;
+
     User findByEmail(String email);
     
     User register(String fullname, String username, String email) throws UserNotFoundException, UsernameExistException, EmailExistException, MessagingException;
     
     User addNew(String fullname, String username, String email, String role, boolean isNotLocked, boolean isActive, MultipartFile avatar) throws UserNotFoundException, UsernameExistException, EmailExistException, IOException, NotAnImageFileException, MessagingException;
 
-    User update(Long id, String newFullname, String newUsername, String newEmail, String newRole, boolean newIsNonLocked, boolean newIsActive, MultipartFile newAvatar) throws UserNotFoundException, UsernameExistException, EmailExistException, IOException, NotAnImageFileException;
+    User update(Long id, Long expectedVersion, String newFullname, String newUsername, String newEmail, String newRole, boolean newIsNonLocked, boolean newIsActive, MultipartFile newAvatar) throws UserNotFoundException, UsernameExistException, EmailExistException, IOException, NotAnImageFileException;
 
-    void delete(Long id) throws IOException;
+    void delete(Long id) throws UserNotFoundException;
 
     void resetPassword(String email) throws MessagingException, EmailNotFoundException;
 
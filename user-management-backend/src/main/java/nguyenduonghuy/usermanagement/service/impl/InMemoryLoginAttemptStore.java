@@ -0,0 +1,55 @@
+package nguyenduonghuy.usermanagement.service.impl;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import nguyenduonghuy.usermanagement.enumeration.LoginAttemptType;
+import nguyenduonghuy.usermanagement.service.LoginAttemptStore;
+import nguyenduonghuy.usermanagement.utils.SlidingWindowCounter;
+
+@Service
+@ConditionalOnProperty(name = "login-attempt.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+
+	private Map<LoginAttemptType, SlidingWindowCounter> counters = new EnumMap<>(LoginAttemptType.class);
+
+	@Autowired
+	public InMemoryLoginAttemptStore(
+			@Value("${login-attempt.window-minutes:" + LOGIN_ATTEMPT_WINDOW_MINUTES + "}") long windowMinutes,
+			@Value("${login-attempt.buckets:" + LOGIN_ATTEMPT_BUCKETS + "}") int buckets,
+			@Value("${login-attempt.username.capacity:" + LOGIN_ATTEMPT_USERNAME_CAPACITY + "}") int usernameCapacity,
+			@Value("${login-attempt.ip-address.capacity:" + LOGIN_ATTEMPT_IP_ADDRESS_CAPACITY + "}") int ipAddressCapacity) {
+		long windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+		int concurrencyLevel = Runtime.getRuntime().availableProcessors() * 4;
+		counters.put(LoginAttemptType.USERNAME, new SlidingWindowCounter(usernameCapacity, concurrencyLevel, windowMillis, buckets));
+		counters.put(LoginAttemptType.IP_ADDRESS, new SlidingWindowCounter(ipAddressCapacity, concurrencyLevel, windowMillis, buckets));
+	}
+
+	@Override
+	public int increment(LoginAttemptType type, String key) {
+		return counters.get(type).increment(key);
+	}
+
+	@Override
+	public int count(LoginAttemptType type, String key) {
+		return counters.get(type).count(key);
+	}
+
+	@Override
+	public void reset(LoginAttemptType type, String key) {
+		counters.get(type).reset(key);
+	}
+
+	@Override
+	public int size(LoginAttemptType type) {
+		return counters.get(type).size();
+	}
+}
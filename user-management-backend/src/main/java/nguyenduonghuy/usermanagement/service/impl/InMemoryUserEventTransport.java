@@ -0,0 +1,42 @@
+package nguyenduonghuy.usermanagement.service.impl;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USER_EVENT_SUBSCRIBER_FAILED;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+import nguyenduonghuy.usermanagement.service.UserEventSubscriber;
+import nguyenduonghuy.usermanagement.service.UserEventTransport;
+
+/**
+ * Hands each relayed batch straight to the subscribers of this JVM. Enough for a single node and
+ * for tests; other nodes never see the events.
+ */
+@Service
+@ConditionalOnProperty(name = "user.events.transport", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryUserEventTransport implements UserEventTransport {
+
+	private List<UserEventSubscriber> subscribers;
+
+	@Autowired
+	public InMemoryUserEventTransport(List<UserEventSubscriber> subscribers) {
+		this.subscribers = subscribers;
+	}
+
+	@Override
+	public void publish(List<UserEvent> events) {
+		for (UserEventSubscriber subscriber : subscribers) {
+			try {
+				subscriber.onUserEvents(events);
+			} catch (RuntimeException e) {
+				log.error(USER_EVENT_SUBSCRIBER_FAILED + subscriber.getClass().getSimpleName(), e);
+			}
+		}
+	}
+}
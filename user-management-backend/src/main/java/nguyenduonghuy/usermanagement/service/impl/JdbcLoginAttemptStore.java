@@ -0,0 +1,229 @@
+package nguyenduonghuy.usermanagement.service.impl;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.enumeration.LoginAttemptType;
+import nguyenduonghuy.usermanagement.service.LoginAttemptStore;
+
+/**
+ * Login attempt store shared by every node using the same database. Increments, counts and
+ * resets only touch local maps; {@link #synchronize()} periodically pushes the local deltas to
+ * the {@code login_attempt} table in JDBC batches and pulls back the cluster-wide sum for the keys
+ * this node has incremented or checked recently. A key is therefore locked on a node at most one
+ * sync interval after that node first checks it, or after its limit is reached anywhere. Each node
+ * only ever writes rows tagged with its own node id, so the deltas are applied with a plain
+ * update-then-insert and never contend across nodes.
+ * <p>
+ * Both local maps are bounded by {@code login-attempt.username.capacity} plus
+ * {@code login-attempt.ip-address.capacity}. Keys not checked for a whole window stop being
+ * reconciled, and under a flood of distinct keys the least recently used ones are dropped, as in
+ * the in-memory store.
+ */
+@Service
+@ConditionalOnProperty(name = "login-attempt.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcLoginAttemptStore implements LoginAttemptStore {
+	private static final String UPDATE_ATTEMPTS = "update login_attempt set attempts = attempts + ? "
+			+ "where attempt_type = ? and attempt_key = ? and bucket_epoch = ? and node_id = ?";
+	private static final String INSERT_ATTEMPTS = "insert into login_attempt (attempts, attempt_type, attempt_key, bucket_epoch, node_id) "
+			+ "values (?, ?, ?, ?, ?)";
+	private static final String DELETE_KEY = "delete from login_attempt where attempt_type = ? and attempt_key = ?";
+	private static final String SELECT_ATTEMPTS = "select attempt_key, sum(attempts) as attempts from login_attempt "
+			+ "where bucket_epoch > ? and attempt_type = ? and attempt_key in (%s) group by attempt_key";
+	private static final String DELETE_EXPIRED = "delete from login_attempt where bucket_epoch <= ?";
+	private static final char SEPARATOR = ':';
+	private static final int SELECT_CHUNK_SIZE = 500;
+
+	private JdbcTemplate jdbcTemplate;
+	private String nodeId = UUID.randomUUID().toString();
+	private int buckets;
+	private long bucketMillis;
+	private ConcurrentMap<String, Integer> pendingAttempts;
+	private Set<String> pendingResets = ConcurrentHashMap.newKeySet();
+	// keys this node reconciles, with their cluster-wide count as of the last sync
+	private ConcurrentMap<String, Integer> sharedAttempts;
+
+	@Autowired
+	public JdbcLoginAttemptStore(JdbcTemplate jdbcTemplate,
+			@Value("${login-attempt.window-minutes:" + LOGIN_ATTEMPT_WINDOW_MINUTES + "}") long windowMinutes,
+			@Value("${login-attempt.buckets:" + LOGIN_ATTEMPT_BUCKETS + "}") int buckets,
+			@Value("${login-attempt.username.capacity:" + LOGIN_ATTEMPT_USERNAME_CAPACITY + "}") int usernameCapacity,
+			@Value("${login-attempt.ip-address.capacity:" + LOGIN_ATTEMPT_IP_ADDRESS_CAPACITY + "}") int ipAddressCapacity) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.buckets = buckets;
+		this.bucketMillis = Math.max(1, TimeUnit.MINUTES.toMillis(windowMinutes) / buckets);
+		long capacity = (long) usernameCapacity + ipAddressCapacity;
+		this.pendingAttempts = CacheBuilder.newBuilder().maximumSize(capacity).<String, Integer>build().asMap();
+		this.sharedAttempts = CacheBuilder.newBuilder()
+				.maximumSize(capacity)
+				.expireAfterAccess(windowMinutes, TimeUnit.MINUTES)
+				.<String, Integer>build()
+				.asMap();
+	}
+
+	@Override
+	public int increment(LoginAttemptType type, String key) {
+		String id = id(type, key);
+		int pending = pendingAttempts.merge(id, 1, Integer::sum);
+		return track(id) + pending;
+	}
+
+	@Override
+	public int count(LoginAttemptType type, String key) {
+		String id = id(type, key);
+		return track(id) + pendingAttempts.getOrDefault(id, 0);
+	}
+
+	@Override
+	public void reset(LoginAttemptType type, String key) {
+		String id = id(type, key);
+		pendingResets.add(id);
+		pendingAttempts.remove(id);
+		sharedAttempts.remove(id);
+	}
+
+	/**
+	 * Counts the keys known to this node: tracked keys with attempts at the last sync plus local
+	 * attempts not yet pushed.
+	 */
+	@Override
+	public int size(LoginAttemptType type) {
+		String prefix = type.name() + SEPARATOR;
+		int size = 0;
+		for (Map.Entry<String, Integer> entry : sharedAttempts.entrySet()) {
+			if (entry.getKey().startsWith(prefix) && entry.getValue() > 0) {
+				size++;
+			}
+		}
+		for (String id : pendingAttempts.keySet()) {
+			if (id.startsWith(prefix) && sharedAttempts.getOrDefault(id, 0) == 0) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	@Scheduled(fixedDelayString = "${login-attempt.jdbc.sync-interval-ms:" + LOGIN_ATTEMPT_SYNC_INTERVAL_MS + "}")
+	@PreDestroy
+	public synchronized void synchronize() {
+		long epoch = System.currentTimeMillis() / bucketMillis;
+		if (!push(epoch)) {
+			return;
+		}
+		try {
+			for (LoginAttemptType type : LoginAttemptType.values()) {
+				String prefix = type.name() + SEPARATOR;
+				List<String> keys = new ArrayList<>();
+				for (String id : sharedAttempts.keySet()) {
+					if (id.startsWith(prefix)) {
+						keys.add(key(id));
+					}
+				}
+				for (List<String> chunk : Lists.partition(keys, SELECT_CHUNK_SIZE)) {
+					pull(type, chunk, epoch - buckets);
+				}
+			}
+			jdbcTemplate.update(DELETE_EXPIRED, epoch - buckets);
+		} catch (RuntimeException e) {
+			log.error(LOGIN_ATTEMPT_SYNC_FAILED + pendingAttempts.size(), e);
+		}
+	}
+
+	private boolean push(long epoch) {
+		List<String> resets = new ArrayList<>(pendingResets);
+		Map<String, Integer> flushed = new HashMap<>(pendingAttempts);
+		try {
+			if (!resets.isEmpty()) {
+				List<Object[]> batch = new ArrayList<>(resets.size());
+				resets.forEach(id -> batch.add(new Object[] { type(id), key(id) }));
+				jdbcTemplate.batchUpdate(DELETE_KEY, batch);
+				pendingResets.removeAll(resets);
+			}
+			if (!flushed.isEmpty()) {
+				List<Object[]> batch = new ArrayList<>(flushed.size());
+				flushed.forEach((id, attempts) -> batch.add(new Object[] { attempts, type(id), key(id), epoch, nodeId }));
+				int[] updated = jdbcTemplate.batchUpdate(UPDATE_ATTEMPTS, batch);
+				List<Object[]> inserts = new ArrayList<>();
+				for (int i = 0; i < updated.length; i++) {
+					if (updated[i] == 0) {
+						inserts.add(batch.get(i));
+					}
+				}
+				if (!inserts.isEmpty()) {
+					jdbcTemplate.batchUpdate(INSERT_ATTEMPTS, inserts);
+				}
+				// Move the flushed deltas into the shared view before dropping them locally, so a
+				// concurrent count may briefly see them twice but never misses them.
+				flushed.forEach((id, attempts) -> {
+					sharedAttempts.merge(id, attempts, Integer::sum);
+					pendingAttempts.computeIfPresent(id, (k, pending) -> pending > attempts ? pending - attempts : null);
+				});
+			}
+			return true;
+		} catch (RuntimeException e) {
+			log.error(LOGIN_ATTEMPT_SYNC_FAILED + pendingAttempts.size(), e);
+			return false;
+		}
+	}
+
+	private void pull(LoginAttemptType type, List<String> keys, long oldestEpoch) {
+		Map<String, Integer> attempts = new HashMap<>();
+		String placeholders = String.join(", ", Collections.nCopies(keys.size(), "?"));
+		List<Object> arguments = new ArrayList<>(keys.size() + 2);
+		arguments.add(oldestEpoch);
+		arguments.add(type.name());
+		arguments.addAll(keys);
+		jdbcTemplate.query(String.format(SELECT_ATTEMPTS, placeholders),
+				resultSet -> {
+					attempts.put(resultSet.getString("attempt_key"), resultSet.getInt("attempts"));
+				}, arguments.toArray());
+		for (String key : keys) {
+			String id = id(type, key);
+			if (!pendingResets.contains(id)) {
+				// only refresh keys still tracked, so a key evicted meanwhile is not brought back
+				sharedAttempts.computeIfPresent(id, (k, previous) -> attempts.getOrDefault(key, 0));
+			}
+		}
+	}
+
+	private int track(String id) {
+		Integer shared = sharedAttempts.putIfAbsent(id, 0);
+		return shared == null ? 0 : shared;
+	}
+
+	private static String id(LoginAttemptType type, String key) {
+		return type.name() + SEPARATOR + key;
+	}
+
+	private static String type(String id) {
+		return id.substring(0, id.indexOf(SEPARATOR));
+	}
+
+	private static String key(String id) {
+		return id.substring(id.indexOf(SEPARATOR) + 1);
+	}
+}
@@ -0,0 +1,104 @@
+package nguyenduonghuy.usermanagement.service.impl;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+import nguyenduonghuy.usermanagement.repository.UserEventRepository;
+import nguyenduonghuy.usermanagement.service.UserEventSubscriber;
+import nguyenduonghuy.usermanagement.service.UserEventTransport;
+
+/**
+ * Transport shared by every node using the same database. Publishing is a no-op: relayed events
+ * stay in the {@code user_event} table, and every node runs {@link #poll()} to deliver the events
+ * relayed since its last poll to its own subscribers, the node that relayed them included.
+ * <p>
+ * {@code relayed_at} comes from the clock of the relaying node and is written before its
+ * transaction commits, so each poll reads back {@code user.events.jdbc.overlap-ms} behind its
+ * watermark and skips the ids it has already delivered. The overlap must cover clock skew between
+ * nodes and the longest relay transaction, and stay well below the retention.
+ */
+@Service
+@ConditionalOnProperty(name = "user.events.transport", havingValue = "jdbc")
+@Slf4j
+public class JdbcUserEventTransport implements UserEventTransport {
+
+	private UserEventRepository userEventRepository;
+	private List<UserEventSubscriber> subscribers;
+	private int batchSize;
+	private long overlapMillis;
+	private LocalDateTime watermark = LocalDateTime.now();
+	private Map<Long, LocalDateTime> delivered = new HashMap<>();
+
+	@Autowired
+	public JdbcUserEventTransport(UserEventRepository userEventRepository, List<UserEventSubscriber> subscribers,
+			@Value("${user.events.batch-size:" + USER_EVENT_BATCH_SIZE + "}") int batchSize,
+			@Value("${user.events.jdbc.overlap-ms:" + USER_EVENT_POLL_OVERLAP_MS + "}") long overlapMillis) {
+		this.userEventRepository = userEventRepository;
+		this.subscribers = subscribers;
+		this.batchSize = batchSize;
+		this.overlapMillis = overlapMillis;
+	}
+
+	@Override
+	public void publish(List<UserEvent> events) {
+		// Stamped rows become visible to every poller when the relay commits
+	}
+
+	/**
+	 * Delivers the events relayed since the last poll and returns how many were new.
+	 */
+	@Scheduled(fixedDelayString = "${user.events.jdbc.poll-interval-ms:" + USER_EVENT_POLL_INTERVAL_MS + "}")
+	public synchronized int poll() {
+		int count = 0;
+		try {
+			Pageable page = PageRequest.of(0, batchSize);
+			List<UserEvent> events = userEventRepository.findRelayedSince(watermark.minus(overlapMillis, ChronoUnit.MILLIS), page);
+			while (!events.isEmpty()) {
+				List<UserEvent> fresh = events.stream()
+						.filter(event -> delivered.putIfAbsent(event.getId(), event.getRelayedAt()) == null)
+						.collect(Collectors.toList());
+				if (!fresh.isEmpty()) {
+					deliver(fresh);
+					count += fresh.size();
+				}
+				UserEvent last = events.get(events.size() - 1);
+				if (last.getRelayedAt().isAfter(watermark)) {
+					watermark = last.getRelayedAt();
+				}
+				events = events.size() < batchSize ? List.of()
+						: userEventRepository.findRelayedAfter(last.getRelayedAt(), last.getId(), page);
+			}
+			LocalDateTime horizon = watermark.minus(overlapMillis, ChronoUnit.MILLIS);
+			delivered.values().removeIf(relayedAt -> relayedAt.isBefore(horizon));
+		} catch (RuntimeException e) {
+			log.error(USER_EVENT_POLL_FAILED, e);
+		}
+		return count;
+	}
+
+	private void deliver(List<UserEvent> events) {
+		for (UserEventSubscriber subscriber : subscribers) {
+			try {
+				subscriber.onUserEvents(events);
+			} catch (RuntimeException e) {
+				log.error(USER_EVENT_SUBSCRIBER_FAILED + subscriber.getClass().getSimpleName(), e);
+			}
+		}
+	}
+}
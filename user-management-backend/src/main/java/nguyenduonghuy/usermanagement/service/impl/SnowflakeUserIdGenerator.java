@@ -0,0 +1,77 @@
+package nguyenduonghuy.usermanagement.service.impl;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import nguyenduonghuy.usermanagement.service.UserIdGenerator;
+
+/**
+ * Snowflake-style ids: 41 bits of milliseconds since {@link #EPOCH_MILLIS}, 10 bits of node id and a
+ * 12-bit sequence, rendered as 19 zero-padded digits so string order matches time order.
+ * <p>
+ * The last timestamp and sequence live in one {@link AtomicLong} updated by compare-and-set, so
+ * there is no lock. A sequence overflow carries into the timestamp and a clock that steps back is
+ * ignored; either way ids keep increasing and the clock catches up on its own. Ids are unique across
+ * nodes as long as every node runs with its own {@code user.id.node-id}. There is no fallback: a
+ * node without one refuses to start, since a guessed id would silently collide with another node.
+ */
+@Service
+public class SnowflakeUserIdGenerator implements UserIdGenerator {
+	public static final long EPOCH_MILLIS = 1_609_459_200_000L; // 2021-01-01T00:00:00Z
+	private static final int NODE_BITS = 10;
+	private static final int SEQUENCE_BITS = 12;
+	private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+	private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+	private static final int DIGITS = 19;
+
+	private long nodeBits;
+	private LongSupplier clock;
+	private AtomicLong state = new AtomicLong();
+
+	@Autowired
+	public SnowflakeUserIdGenerator(@Value("${user.id.node-id:" + USER_ID_NODE_UNSET + "}") long nodeId) {
+		this(nodeId, System::currentTimeMillis);
+	}
+
+	public SnowflakeUserIdGenerator(long nodeId, LongSupplier clock) {
+		if (nodeId == USER_ID_NODE_UNSET) {
+			throw new IllegalStateException(USER_ID_NODE_ID_REQUIRED);
+		}
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException(USER_ID_NODE_ID_OUT_OF_RANGE + nodeId);
+		}
+		this.nodeBits = nodeId << SEQUENCE_BITS;
+		this.clock = clock;
+	}
+
+	@Override
+	public String nextId() {
+		return format(nextLong());
+	}
+
+	public long nextLong() {
+		while (true) {
+			long current = state.get();
+			long millis = clock.getAsLong() - EPOCH_MILLIS;
+			long next = millis > current >>> SEQUENCE_BITS ? millis << SEQUENCE_BITS : current + 1;
+			if (state.compareAndSet(current, next)) {
+				return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+			}
+		}
+	}
+
+	private static String format(long id) {
+		char[] digits = new char[DIGITS];
+		for (int i = DIGITS - 1; i >= 0; i--) {
+			digits[i] = (char) ('0' + id % 10);
+			id /= 10;
+		}
+		return new String(digits);
+	}
+}
@@ -5,63 +5,104 @@ import static nguyenduonghuy.usermanagement.constant.FileConstant.*;
 import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.*;
 import static org.springframework.http.MediaType.*;
 
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import javax.mail.MessagingException;
 import javax.transaction.Transactional;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.tomcat.util.http.fileupload.FileUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserDetail;
+import nguyenduonghuy.usermanagement.domain.UserKey;
+import nguyenduonghuy.usermanagement.domain.UserPage;
 import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.domain.UserSummary;
+import nguyenduonghuy.usermanagement.domain.UserVersion;
 import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.enumeration.UserEventType;
+import nguyenduonghuy.usermanagement.enumeration.UserSort;
 import nguyenduonghuy.usermanagement.exception.EmailExistException;
 import nguyenduonghuy.usermanagement.exception.EmailNotFoundException;
 import nguyenduonghuy.usermanagement.exception.NotAnImageFileException;
 import nguyenduonghuy.usermanagement.exception.UserNotFoundException;
+import nguyenduonghuy.usermanagement.exception.UserVersionMismatchException;
 import nguyenduonghuy.usermanagement.exception.UsernameExistException;
 import nguyenduonghuy.usermanagement.repository.UserRepository;
 import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.LastLoginUpdateService;
 import nguyenduonghuy.usermanagement.service.LoginAttemptService;
+import nguyenduonghuy.usermanagement.service.TokenRevocationService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserEventOutbox;
+import nguyenduonghuy.usermanagement.service.UserIdGenerator;
+import nguyenduonghuy.usermanagement.service.UserSearchService;
 import nguyenduonghuy.usermanagement.service.UserService;
+import nguyenduonghuy.usermanagement.utils.UniqueConstraints;
+import nguyenduonghuy.usermanagement.utils.UserCursor;
 
 @Service
 @Transactional
 @Qualifier("userDetailsService")
 @Slf4j
-public class UserServiceImpl implements UserService, UserDetailsService {
+public class UserServiceImpl implements UserService, UserDetailsService, UserDetailsPasswordService {
 
 	private UserRepository userRepository;
 	private LoginAttemptService loginAttemptService;
 	private EmailService emailService;
-	private BCryptPasswordEncoder passwordEncoder;
+	private PasswordEncoder passwordEncoder;
+	private LastLoginUpdateService lastLoginUpdateService;
+	private UserCacheService userCacheService;
+	private UserSearchService userSearchService;
+	private UserIdGenerator userIdGenerator;
+	private UserEventOutbox userEventOutbox;
+	private TokenRevocationService tokenRevocationService;
+	private Timer avatarWriteTimer;
 	
 	@Autowired
-	public UserServiceImpl(UserRepository userRepository, LoginAttemptService loginAttemptService, EmailService emailService, BCryptPasswordEncoder passwordEncoder) {
+	public UserServiceImpl(UserRepository userRepository, LoginAttemptService loginAttemptService, EmailService emailService, PasswordEncoder passwordEncoder,
+			LastLoginUpdateService lastLoginUpdateService, UserCacheService userCacheService, UserSearchService userSearchService,
+			UserIdGenerator userIdGenerator, UserEventOutbox userEventOutbox, TokenRevocationService tokenRevocationService,
+			MeterRegistry meterRegistry) {
 		this.userRepository = userRepository;
 		this.loginAttemptService = loginAttemptService;
 		this.emailService = emailService;
 		this.passwordEncoder = passwordEncoder;
+		this.lastLoginUpdateService = lastLoginUpdateService;
+		this.userCacheService = userCacheService;
+		this.userSearchService = userSearchService;
+		this.userIdGenerator = userIdGenerator;
+		this.userEventOutbox = userEventOutbox;
+		this.tokenRevocationService = tokenRevocationService;
+		this.avatarWriteTimer = Timer.builder("users.avatar").tag("operation", "write")
+				.description("Time to read or write an avatar file").register(meterRegistry);
 	}
 
 	@Override
@@ -69,39 +110,87 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 		return userRepository.findAll();
 	}
 
+	@Override
+	public UserPage getPage(String cursor, Integer size, String sort) {
+		int pageSize = size == null ? USER_PAGE_DEFAULT_SIZE : Math.max(1, Math.min(size, USER_PAGE_MAX_SIZE));
+		UserCursor after = cursor == null || cursor.isEmpty() ? null : UserCursor.decode(cursor);
+		UserSort userSort = after != null ? after.getSort() : UserSort.from(sort);
+		Slice<UserSummary> slice = findSlice(after, PageRequest.of(0, pageSize, userSort.getSort()), userSort);
+		List<UserSummary> users = slice.getContent();
+		String nextCursor = slice.hasNext() ? UserCursor.encode(userSort, users.get(users.size() - 1)) : null;
+		return new UserPage(users, nextCursor);
+	}
+
+	@Override
+	public UserDetail getDetail(String username) throws UserNotFoundException {
+		UserDetail userDetail = userRepository.findDetailByUsername(username);
+		if (userDetail == null) {
+			throw new UserNotFoundException(NO_USER_FOUND_BY_USERNAME + username);
+		}
+		return userDetail;
+	}
+
+	/**
+	 * Reads only the id and version, so a client revalidating its copy costs no row fetch.
+	 */
+	@Override
+	public UserVersion getVersion(String username) throws UserNotFoundException {
+		UserVersion userVersion = userRepository.findVersionByUsername(username);
+		if (userVersion == null) {
+			throw new UserNotFoundException(NO_USER_FOUND_BY_USERNAME + username);
+		}
+		return userVersion;
+	}
+
 	@Override
 	public User findByUsername(String username) {
-		return userRepository.findByUsername(username);
+		return userCacheService.getByUsername(username, userRepository::findByUsername);
 	}
 
 	@Override
 	public User findByEmail(String email) {
-		return userRepository.findByEmail(email);
+		return userCacheService.getByEmail(email, userRepository::findByEmail);
 	}
 	
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		User user = userRepository.findByUsername(username);
+		User user = findByUsername(username);
 		if (user == null) {
 			log.error(NO_USER_FOUND_BY_USERNAME  + username);
 			throw new UsernameNotFoundException(NO_USER_FOUND_BY_USERNAME + username);
 		} else {
 			validateLoginAttempt(user);
-			user.setLastLoginDateDisplay(user.getLastLoginDate());
-			user.setLastLoginDate(LocalDateTime.now());
-			userRepository.save(user);
+			lastLoginUpdateService.recordLogin(user);
+			userCacheService.put(user);
 			UserPrincipal userPrincipal = new UserPrincipal(user);
 			log.info(FOUND_USER_BY_USERNAME + username);
 			return userPrincipal;
 		}
 	}
 	
+	@Override
+	public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+		int updated = userRepository.updatePassword(userDetails.getUsername(), newPassword);
+		if (userDetails instanceof UserPrincipal) {
+			User user = ((UserPrincipal) userDetails).getUser();
+			userCacheService.evict(user);
+			user.setPassword(newPassword);
+			if (updated > 0 && user.getVersion() != null) {
+				user.setVersion(user.getVersion() + 1);
+			}
+		}
+		log.info(PASSWORD_REHASHED + userDetails.getUsername());
+		return userDetails;
+	}
+	
 	@Override
 	public User register(String fullname, String username, String email) throws UserNotFoundException, UsernameExistException, EmailExistException, MessagingException {
 		validateNewUsernameAndEmail(username, email);
 		String password = generatePassword();
-		User user = new User(null, generateUserId(), fullname, username, encodePassword(password), email, getTemporaryProfileImageUrl(username), null, null, LocalDateTime.now(), Role.ROLE_USER.name(), Role.ROLE_USER.getAuthorities(), true, true);
-		userRepository.save(user);
+		User user = new User(null, generateUserId(), fullname, username, encodePassword(password), email, getTemporaryProfileImageUrl(username), null, null, LocalDateTime.now(), Role.ROLE_USER.name(), true, true, null, null, null, null, null);
+		saveUnique(user);
+		userEventOutbox.append(UserEventType.CREATED, user);
+		userSearchService.index(user);
 		log.info("New user's password: " + password);
 		emailService.sendNewPasswordToEmail(fullname, password, email);
 		return user;
@@ -112,8 +201,10 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException, NotAnImageFileException, MessagingException {
 		validateNewUsernameAndEmail(username, email);
 		String password = generatePassword();
-		User user = new User(null, generateUserId(), fullname, username, encodePassword(password), email, getTemporaryProfileImageUrl(username), null, null, LocalDateTime.now(), getRoleName(role).name(), getRoleName(role).getAuthorities(), isNotLocked, isActive);
-        userRepository.save(user);
+		User user = new User(null, generateUserId(), fullname, username, encodePassword(password), email, getTemporaryProfileImageUrl(username), null, null, LocalDateTime.now(), getRoleName(role).name(), isNotLocked, isActive, null, null, null, null, null);
+        saveUnique(user);
+        userEventOutbox.append(UserEventType.CREATED, user);
+        userSearchService.index(user);
         log.info("New user's password: " + password);
         saveAvatar(user, avatar);
         emailService.sendNewPasswordToEmail(fullname, password, email);
@@ -121,27 +212,45 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 	}
 
 	@Override
-	public User update(Long id, String newFullname, String newUsername, String newEmail, String newRole, boolean newIsNonLocked, boolean newIsActive, MultipartFile newAvatar) 
+	public User update(Long id, Long expectedVersion, String newFullname, String newUsername, String newEmail, String newRole, boolean newIsNonLocked, boolean newIsActive, MultipartFile newAvatar) 
 			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException, NotAnImageFileException {
-		User user = validateUpdateUsernameAndEmail(id, newUsername, newEmail);
+		User user = getExisting(id);
+		// Fails before any change; the version check on flush still catches a writer in between
+		if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+			throw new UserVersionMismatchException(USER_VERSION_MISMATCH);
+		}
+		userCacheService.evict(user);
+		boolean revokeTokens = (user.isNotLocked() && !newIsNonLocked) || (user.isActive() && !newIsActive);
 		user.setFullname(newFullname);
 		user.setUsername(newUsername);
 		user.setEmail(newEmail);
 		user.setRole(getRoleName(newRole).name());
-		user.setAuthorities(getRoleName(newRole).getAuthorities());
 		user.setNotLocked(newIsNonLocked);
 		user.setActive(newIsActive);
-		userRepository.save(user);
+		if (revokeTokens) {
+			user.setTokensRevokedAt(LocalDateTime.now());
+		}
+		saveUnique(user);
+		if (revokeTokens) {
+			tokenRevocationService.revokeUser(user.getUsername(), user.getTokensRevokedAt());
+		}
+		userEventOutbox.append(UserEventType.UPDATED, user);
+		userSearchService.index(user);
 		saveAvatar(user, newAvatar);
 		return user;
 	}
 
+	/**
+	 * Only tombstones the user, which hides it from every read at once. The avatar folder and the
+	 * row are removed later by {@link nguyenduonghuy.usermanagement.service.UserReaperService}.
+	 */
 	@Override
-	public void delete(Long id) throws IOException {
-		User user = userRepository.getById(id);
-        Path userFolder = Paths.get(USER_FOLDER + user.getUsername()).toAbsolutePath().normalize();
-        FileUtils.deleteDirectory(new File(userFolder.toString()));
-        userRepository.deleteById(id);
+	public void delete(Long id) throws UserNotFoundException {
+		User user = getExisting(id);
+		userCacheService.evict(user);
+		userRepository.tombstoneByIdIn(Collections.singletonList(id), LocalDateTime.now());
+		userEventOutbox.append(UserEventType.DELETED, user);
+		userSearchService.remove(id);
 	}
 
 	@Override
@@ -150,9 +259,11 @@ public class UserServiceImpl implements UserService, UserDetailsService {
         if (user == null) {
             throw new EmailNotFoundException(NO_USER_FOUND_BY_EMAIL + email);
         }
+        userCacheService.evict(user);
         String password = generatePassword();
         user.setPassword(encodePassword(password));
         userRepository.save(user);
+        userEventOutbox.append(UserEventType.PASSWORD_RESET, user);
         log.info("New user's password: " + password);
         emailService.sendNewPasswordToEmail(user.getFullname(), password, user.getEmail());
 	}
@@ -160,43 +271,76 @@ public class UserServiceImpl implements UserService, UserDetailsService {
 	@Override
 	public User updateAvatar(Long id, MultipartFile newAvatar) 
 			throws UserNotFoundException, UsernameExistException, EmailExistException, IOException, NotAnImageFileException {
-		User user = validateUpdateUsernameAndEmail(id, StringUtils.EMPTY, StringUtils.EMPTY);
+		User user = getExisting(id);
 		saveAvatar(user, newAvatar);
+		if (newAvatar != null) {
+			userEventOutbox.append(UserEventType.UPDATED, user);
+		}
 		return user;
 	}
 	
-	private void validateNewUsernameAndEmail(String newUsername, String newEmail) throws UserNotFoundException, UsernameExistException, EmailExistException {
-        User userByNewUsername = findByUsername(newUsername);
-        User userByNewEmail = findByEmail(newEmail);
-        if(userByNewUsername != null) {
-        	throw new UsernameExistException(USERNAME_ALREADY_EXISTS);
-        }
-        if(userByNewEmail != null) {
-        	throw new EmailExistException(EMAIL_ALREADY_EXISTS);
-        }
-    }
+	private Slice<UserSummary> findSlice(UserCursor after, Pageable pageable, UserSort sort) {
+		if (after == null) {
+			return userRepository.findSummaries(pageable);
+		}
+		if (sort.isByJoinDate()) {
+			return sort.isAscending()
+					? userRepository.findSummariesAfterJoinDate(after.getJoinDate(), after.getId(), pageable)
+					: userRepository.findSummariesBeforeJoinDate(after.getJoinDate(), after.getId(), pageable);
+		}
+		return sort.isAscending()
+				? userRepository.findSummariesAfterId(after.getId(), pageable)
+				: userRepository.findSummariesBeforeId(after.getId(), pageable);
+	}
 	
-	private User validateUpdateUsernameAndEmail(Long id, String newUsername, String newEmail) throws UserNotFoundException, UsernameExistException, EmailExistException {
+	/**
+	 * Fails fast on a taken username or email with a single indexed query. The unique key
+	 * constraints stay the authority; {@link #saveUnique(User)} covers the race with a concurrent writer.
+	 */
+	private void validateNewUsernameAndEmail(String newUsername, String newEmail) throws UsernameExistException, EmailExistException {
+		String usernameKey = User.normalizeKey(newUsername);
+		String emailKey = User.normalizeKey(newEmail);
+		List<UserKey> existing = userRepository.findKeysByUsernameKeyOrEmailKey(usernameKey, emailKey);
+		if (existing.stream().anyMatch(key -> StringUtils.equals(usernameKey, key.getUsernameKey()))) {
+			throw new UsernameExistException(USERNAME_ALREADY_EXISTS);
+		}
+		if (!existing.isEmpty()) {
+			throw new EmailExistException(EMAIL_ALREADY_EXISTS);
+		}
+	}
+	
+	private User getExisting(Long id) throws UserNotFoundException {
 		Optional<User> currentUser = userRepository.findById(id);
-		User userByNewUsername = userRepository.findByUsername(newUsername);
-		User userByNewEmail = userRepository.findByEmail(newEmail);
 		if (!currentUser.isPresent()) {
 			throw new UserNotFoundException(NO_USER_FOUND_BY_ID);
-		} else {
-			if (userByNewUsername != null && !id.equals(userByNewUsername.getId())) {
+		}
+		return currentUser.get();
+	}
+	
+	private void saveUnique(User user) throws UsernameExistException, EmailExistException {
+		try {
+			userRepository.saveAndFlush(user);
+		} catch (DataIntegrityViolationException e) {
+			if (UniqueConstraints.isViolated(e, User.USERNAME_KEY_CONSTRAINT)) {
 				throw new UsernameExistException(USERNAME_ALREADY_EXISTS);
 			}
-			if (userByNewEmail != null && !id.equals(userByNewEmail.getId())) {
+			if (UniqueConstraints.isViolated(e, User.EMAIL_KEY_CONSTRAINT)) {
 				throw new EmailExistException(EMAIL_ALREADY_EXISTS);
 			}
-			return currentUser.get();
+			throw e;
 		}
 	}
 	
 	private void validateLoginAttempt(User user) {
         if(user.isNotLocked()) {
             if(loginAttemptService.hasExceededMaxAttempts(user.getUsername())) {
+                userCacheService.evict(user);
                 user.setNotLocked(false);
+                user.setTokensRevokedAt(LocalDateTime.now());
+                // The user may come from the cache with a stale version, so lock with a set-based update
+                userRepository.lockByIdIn(Collections.singletonList(user.getId()), user.getTokensRevokedAt());
+                tokenRevocationService.revokeUser(user.getUsername(), user.getTokensRevokedAt());
+                userEventOutbox.append(UserEventType.LOCKED, user);
             }
         } else {
             loginAttemptService.evictUserFromLoginAttemptCache(user.getUsername());
@@ -209,12 +353,18 @@ public class UserServiceImpl implements UserService, UserDetailsService {
                 throw new NotAnImageFileException(avatar.getOriginalFilename() + NOT_AN_IMAGE_FILE);
             }
             Path userFolder = Paths.get(USER_FOLDER + user.getUsername()).toAbsolutePath().normalize();
-            if(!Files.exists(userFolder)) {
-                Files.createDirectories(userFolder);
-                log.info(DIRECTORY_CREATED + userFolder);
+            long start = System.nanoTime();
+            try {
+                if(!Files.exists(userFolder)) {
+                    Files.createDirectories(userFolder);
+                    log.info(DIRECTORY_CREATED + userFolder);
+                }
+                userCacheService.evict(user);
+                Files.deleteIfExists(Paths.get(userFolder + user.getUsername() + DOT + JPG_EXTENSION));
+                Files.copy(avatar.getInputStream(), userFolder.resolve(user.getUsername() + DOT + JPG_EXTENSION), REPLACE_EXISTING);
+            } finally {
+                avatarWriteTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             }
-            Files.deleteIfExists(Paths.get(userFolder + user.getUsername() + DOT + JPG_EXTENSION));
-            Files.copy(avatar.getInputStream(), userFolder.resolve(user.getUsername() + DOT + JPG_EXTENSION), REPLACE_EXISTING);
             user.setAvatar(setAvatarUrl(user.getUsername()));
             userRepository.save(user);
             log.info(FILE_SAVED_IN_FILE_SYSTEM + avatar.getOriginalFilename());
@@ -226,7 +376,7 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     }
 	
 	private String generateUserId() {
-		return RandomStringUtils.randomNumeric(10);
+		return userIdGenerator.nextId();
 	}
 	
 	private String generatePassword() {
@@ -1,91 +1,147 @@
 package nguyenduonghuy.usermanagement.utils;
 
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import nguyenduonghuy.usermanagement.domain.JwtAuthenticationToken;
 import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.domain.VerifiedToken;
+import nguyenduonghuy.usermanagement.enumeration.Permission;
 import static nguyenduonghuy.usermanagement.constant.SecurityConstant.*;
 
 @Component
 public class JwtTokenProvider {
-	
-	@Value("${jwt.secret}")
-	private String secret;
-	
+
+	private Algorithm algorithm;
+	private JWTVerifier verifier;
+	private Cache<HashCode, VerifiedToken> verifiedTokenCache;
+	private Timer signTimer;
+	private Timer verifyHitTimer;
+	private Timer verifyMissTimer;
+
+	@Autowired
+	public JwtTokenProvider(MeterRegistry meterRegistry, @Value("${jwt.secret}") String secret,
+			@Value("${jwt.cache.maximum-size:" + TOKEN_CACHE_MAXIMUM_SIZE + "}") long cacheMaximumSize,
+			@Value("${jwt.cache.expire-after-write-seconds:" + TOKEN_CACHE_EXPIRE_AFTER_WRITE_SECONDS + "}") long cacheExpireAfterWriteSeconds) {
+		this.algorithm = Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8));
+		this.verifier = getJWTVerifier(algorithm);
+		this.verifiedTokenCache = CacheBuilder.newBuilder()
+				.maximumSize(cacheMaximumSize)
+				.expireAfterWrite(cacheExpireAfterWriteSeconds, TimeUnit.SECONDS)
+				.recordStats()
+				.build();
+		GuavaCacheMetrics.monitor(meterRegistry, verifiedTokenCache, "security.jwt.verified");
+		this.signTimer = Timer.builder("security.jwt.sign").description("Time to sign a JWT").register(meterRegistry);
+		this.verifyHitTimer = Timer.builder("security.jwt.verify").tag("cache", "hit")
+				.description("Time to verify a JWT").register(meterRegistry);
+		this.verifyMissTimer = Timer.builder("security.jwt.verify").tag("cache", "miss")
+				.description("Time to verify a JWT").register(meterRegistry);
+	}
+
 	public String generateJwtToken(UserPrincipal userPrincipal) {
-		Algorithm algorithm = Algorithm.HMAC512(secret.getBytes());
-		String[] claims = getClaimsFromUser(userPrincipal);
-		return JWT.create()
+		return signTimer.record(() -> JWT.create()
 				.withIssuer(NGUYEN_DUONG_HUY)
 				.withAudience(ADMINISTRATION)
 				.withIssuedAt(new Date())
 				.withSubject(userPrincipal.getUsername())
-				.withArrayClaim(AUTHORITIES, claims)
+				.withJWTId(UUID.randomUUID().toString())
+				.withClaim(PERMISSIONS, userPrincipal.getPermissionMask())
 				.withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-				.sign(algorithm);
+				.sign(algorithm));
+	}
+
+	public Authentication getAuthentication(VerifiedToken verifiedToken, HttpServletRequest request) {
+		JwtAuthenticationToken jwtAuthenticationToken =
+				new JwtAuthenticationToken(verifiedToken.getSubject(), verifiedToken.getPermissionMask());
+		jwtAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+		return jwtAuthenticationToken;
 	}
-	
+
 	public Authentication getAuthentication(String user, List<GrantedAuthority> authorities, HttpServletRequest request) {
-		UsernamePasswordAuthenticationToken usernamePasswordAuthToken = 
+		UsernamePasswordAuthenticationToken usernamePasswordAuthToken =
 				new UsernamePasswordAuthenticationToken(user, null, authorities);
 		usernamePasswordAuthToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 		return usernamePasswordAuthToken;
 	}
-	
-	public List<GrantedAuthority> getAuthorities(String token) {
-		String[] claims = getClaimsFromToken(token);
-		return Arrays.stream(claims).map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+
+	/**
+	 * Verifies the token signature once and returns its subject, authorities and expiry.
+	 * Tokens already verified are served from a bounded cache keyed by the SHA-256 digest
+	 * of the token until either the cache entry or the token itself expires.
+	 */
+	public VerifiedToken verifyToken(String token) {
+		long start = System.nanoTime();
+		HashCode tokenDigest = Hashing.sha256().hashString(token, StandardCharsets.UTF_8);
+		VerifiedToken verifiedToken = verifiedTokenCache.getIfPresent(tokenDigest);
+		if (verifiedToken != null && !verifiedToken.isExpired()) {
+			verifyHitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			return verifiedToken;
+		}
+		try {
+			verifiedToken = decodeToken(verifier.verify(token));
+			verifiedTokenCache.put(tokenDigest, verifiedToken);
+			return verifiedToken;
+		} finally {
+			verifyMissTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
 	}
-	
-	public String getSubject(String token) {
-		JWTVerifier verifier = getJWTVerifier();
-		return verifier.verify(token).getSubject();
+
+	public boolean isTokenValid(VerifiedToken verifiedToken) {
+		return StringUtils.isNotEmpty(verifiedToken.getSubject()) && !verifiedToken.isExpired();
 	}
-	
-	public boolean isTokenValid(String username, String token) {
-		JWTVerifier verifier = getJWTVerifier();
-		return StringUtils.isNotEmpty(username) && !isTokenExpired(verifier, token);
+
+	public List<GrantedAuthority> getAuthorities(String token) {
+		return verifyToken(token).getAuthorities();
 	}
 
-	private boolean isTokenExpired(JWTVerifier verifier, String token) {
-		Date expiredDate = verifier.verify(token).getExpiresAt();
-		return expiredDate.before(new Date());
+	public String getSubject(String token) {
+		return verifyToken(token).getSubject();
 	}
 
-	private String[] getClaimsFromUser(UserPrincipal userPrincipal) {
-		List<String> authorities = new ArrayList<>();
-		userPrincipal.getAuthorities().forEach(authority -> authorities.add(authority.getAuthority()));
-		return authorities.toArray(new String[0]);
+	public boolean isTokenValid(String username, String token) {
+		return StringUtils.isNotEmpty(username) && !verifyToken(token).isExpired();
 	}
-	
-	private String[] getClaimsFromToken(String token) {
-		JWTVerifier verifier = getJWTVerifier();
-		return verifier.verify(token).getClaim(AUTHORITIES).asArray(String.class);
+
+	private VerifiedToken decodeToken(DecodedJWT decodedJWT) {
+		Claim permissions = decodedJWT.getClaim(PERMISSIONS);
+		// tokens issued before the permission mask carry the full authority array
+		int permissionMask = permissions.isNull()
+				? Permission.maskOf(decodedJWT.getClaim(AUTHORITIES).asArray(String.class))
+				: permissions.asInt();
+		return new VerifiedToken(decodedJWT.getSubject(), decodedJWT.getId(), permissionMask, decodedJWT.getIssuedAt(), decodedJWT.getExpiresAt());
 	}
 
-	private JWTVerifier getJWTVerifier() {
+	private JWTVerifier getJWTVerifier(Algorithm algorithm) {
 		JWTVerifier verifier;
 		try {
-			Algorithm algorithm = Algorithm.HMAC512(secret);
 			verifier = JWT.require(algorithm).withIssuer(NGUYEN_DUONG_HUY).build();
 		} catch (JWTVerificationException e) {
 			throw new JWTVerificationException(TOKEN_CANNOT_BE_VERIFIED);
@@ -0,0 +1,28 @@
+package nguyenduonghuy.usermanagement.utils;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import nguyenduonghuy.usermanagement.domain.JwtAuthenticationToken;
+import nguyenduonghuy.usermanagement.enumeration.Permission;
+
+/**
+ * Permission check for method security, e.g. {@code @PreAuthorize("@permissions.has('user:delete')")}.
+ * JWT-authenticated requests are answered from the permission bitmask without scanning authorities.
+ */
+@Component("permissions")
+public class PermissionChecker {
+
+	public boolean has(String authority) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		Permission permission = Permission.fromAuthority(authority);
+		if (authentication == null || permission == null) {
+			return false;
+		}
+		if (authentication instanceof JwtAuthenticationToken) {
+			return ((JwtAuthenticationToken) authentication).hasPermission(permission);
+		}
+		return authentication.getAuthorities().stream().anyMatch(grantedAuthority -> authority.equals(grantedAuthority.getAuthority()));
+	}
+}
@@ -0,0 +1,211 @@
+package nguyenduonghuy.usermanagement.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Fixed-memory event counter over a sliding time window, keyed by string.
+ * <p>
+ * Keys are reduced to 64-bit fingerprints and stored in open-addressing segments, each guarded by
+ * its own lock. Every key owns a ring of one-byte buckets that together cover the window; the count
+ * is the saturating sum of the buckets that are still inside the window. Nothing is boxed and the
+ * footprint is fixed at construction (about {@code 16 + buckets} bytes per slot). When a probe run
+ * is full, the slot whose last event is oldest is recycled, so the table never grows.
+ * <p>
+ * Fingerprints are keyed SipHash with a random key per process, so a client cannot precompute
+ * keys that collide with, and so share or evict, another key's slot.
+ */
+public class SlidingWindowCounter {
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final HashFunction FINGERPRINT = Hashing.sipHash24(RANDOM.nextLong(), RANDOM.nextLong());
+	private static final int MAX_PROBES = 8;
+	private static final int MAX_BUCKET_COUNT = 0xFF;
+	private static final long EMPTY = 0L;
+
+	private final Segment[] segments;
+	private final int segmentMask;
+	private final int buckets;
+	private final long bucketMillis;
+	private final LongSupplier clock;
+
+	public SlidingWindowCounter(int capacity, int concurrencyLevel, long windowMillis, int buckets) {
+		this(capacity, concurrencyLevel, windowMillis, buckets, System::currentTimeMillis);
+	}
+
+	public SlidingWindowCounter(int capacity, int concurrencyLevel, long windowMillis, int buckets, LongSupplier clock) {
+		int segmentCount = ceilingPowerOfTwo(Math.max(1, concurrencyLevel));
+		int slotsPerSegment = ceilingPowerOfTwo(Math.max(MAX_PROBES, capacity / segmentCount));
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = new Segment(slotsPerSegment, buckets);
+		}
+		this.segmentMask = segmentCount - 1;
+		this.buckets = buckets;
+		this.bucketMillis = Math.max(1, windowMillis / buckets);
+		this.clock = clock;
+	}
+
+	/**
+	 * Records one event for the key and returns the number of events inside the window.
+	 */
+	public int increment(String key) {
+		long fingerprint = fingerprint(key);
+		return segmentFor(fingerprint).increment(fingerprint, currentEpoch());
+	}
+
+	public int count(String key) {
+		long fingerprint = fingerprint(key);
+		return segmentFor(fingerprint).count(fingerprint, currentEpoch());
+	}
+
+	public void reset(String key) {
+		long fingerprint = fingerprint(key);
+		segmentFor(fingerprint).reset(fingerprint);
+	}
+
+	/**
+	 * Number of keys that still have events inside the window.
+	 */
+	public int size() {
+		long epoch = currentEpoch();
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.activeSlots(epoch);
+		}
+		return size;
+	}
+
+	public int capacity() {
+		return segments.length * segments[0].fingerprints.length;
+	}
+
+	private Segment segmentFor(long fingerprint) {
+		return segments[(int) (fingerprint >>> 32) & segmentMask];
+	}
+
+	private long currentEpoch() {
+		return clock.getAsLong() / bucketMillis;
+	}
+
+	private int bucketOf(long epoch) {
+		return (int) Math.floorMod(epoch, (long) buckets);
+	}
+
+	private static long fingerprint(String key) {
+		long fingerprint = FINGERPRINT.hashString(key, StandardCharsets.UTF_8).asLong();
+		return fingerprint == EMPTY ? 1L : fingerprint;
+	}
+
+	private static int ceilingPowerOfTwo(int value) {
+		return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+	}
+
+	private final class Segment {
+		private final long[] fingerprints;
+		private final long[] lastEpochs;
+		private final byte[] counts;
+		private final int slotMask;
+
+		private Segment(int slots, int buckets) {
+			this.fingerprints = new long[slots];
+			this.lastEpochs = new long[slots];
+			this.counts = new byte[slots * buckets];
+			this.slotMask = slots - 1;
+		}
+
+		private synchronized int increment(long fingerprint, long epoch) {
+			int slot = findOrClaim(fingerprint, epoch);
+			advance(slot, epoch);
+			int index = slot * buckets + bucketOf(epoch);
+			int current = counts[index] & MAX_BUCKET_COUNT;
+			if (current < MAX_BUCKET_COUNT) {
+				counts[index] = (byte) (current + 1);
+			}
+			return sum(slot, epoch);
+		}
+
+		private synchronized int count(long fingerprint, long epoch) {
+			int slot = find(fingerprint);
+			return slot < 0 ? 0 : sum(slot, epoch);
+		}
+
+		private synchronized void reset(long fingerprint) {
+			int slot = find(fingerprint);
+			if (slot >= 0) {
+				fingerprints[slot] = EMPTY;
+				lastEpochs[slot] = 0L;
+				Arrays.fill(counts, slot * buckets, (slot + 1) * buckets, (byte) 0);
+			}
+		}
+
+		private synchronized int activeSlots(long epoch) {
+			int active = 0;
+			for (int slot = 0; slot < fingerprints.length; slot++) {
+				if (fingerprints[slot] != EMPTY && epoch - lastEpochs[slot] < buckets) {
+					active++;
+				}
+			}
+			return active;
+		}
+
+		private int find(long fingerprint) {
+			int slot = (int) fingerprint & slotMask;
+			for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & slotMask) {
+				if (fingerprints[slot] == fingerprint) {
+					return slot;
+				}
+			}
+			return -1;
+		}
+
+		private int findOrClaim(long fingerprint, long epoch) {
+			int found = find(fingerprint);
+			if (found >= 0) {
+				return found;
+			}
+			int slot = (int) fingerprint & slotMask;
+			int victim = slot;
+			for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & slotMask) {
+				if (fingerprints[slot] == EMPTY || epoch - lastEpochs[slot] >= buckets) {
+					victim = slot;
+					break;
+				}
+				if (lastEpochs[slot] < lastEpochs[victim]) {
+					victim = slot;
+				}
+			}
+			fingerprints[victim] = fingerprint;
+			lastEpochs[victim] = epoch;
+			Arrays.fill(counts, victim * buckets, (victim + 1) * buckets, (byte) 0);
+			return victim;
+		}
+
+		private void advance(int slot, long epoch) {
+			long lastEpoch = lastEpochs[slot];
+			if (epoch > lastEpoch) {
+				long stale = Math.min(epoch - lastEpoch, buckets);
+				for (long e = epoch - stale + 1; e <= epoch; e++) {
+					counts[slot * buckets + bucketOf(e)] = 0;
+				}
+				lastEpochs[slot] = epoch;
+			}
+		}
+
+		private int sum(int slot, long epoch) {
+			long lastEpoch = lastEpochs[slot];
+			if (epoch - lastEpoch >= buckets) {
+				return 0;
+			}
+			int total = 0;
+			for (long e = Math.max(epoch, lastEpoch) - buckets + 1; e <= lastEpoch; e++) {
+				total += counts[slot * buckets + bucketOf(e)] & MAX_BUCKET_COUNT;
+			}
+			return total;
+		}
+	}
+}
@@ -0,0 +1,384 @@
+package nguyenduonghuy.usermanagement.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory substring index over a few text fields per entry, keyed by a {@code long} id.
+ * <p>
+ * Every entry gets an internal document number and its fields are lower-cased, prefixed with a
+ * start marker and joined into one key string. Each distinct trigram of the key maps to a
+ * posting list: a growable {@code int[]} of document numbers, sorted because numbers are handed
+ * out in increasing order. A query intersects the posting lists of its trigrams, starting from
+ * the shortest and galloping through the others. The survivors are checked against the key so
+ * hash collisions never leak through, then ranked and kept in a bounded heap.
+ * <p>
+ * Field prefix matches are searched first through the marker trigrams; other substrings are
+ * only looked at if the prefix matches did not fill the limit. Each phase checks at most
+ * {@link #MAX_CANDIDATES} documents, so a query matching most of the index (say
+ * {@code "mail.com"}) costs the same as a selective one; past that budget the ranking is the
+ * best of the oldest candidates.
+ * <p>
+ * Updates replace the entry under a new document number and leave a tombstone. Postings are
+ * rebuilt once tombstones outnumber live entries.
+ */
+public class TrigramIndex {
+	public static final int MIN_QUERY_LENGTH = 3;
+	public static final int MAX_CANDIDATES = 5_000;
+	private static final char FIELD_SEPARATOR = '\u0001';
+	private static final char FIELD_START = '\u0002';
+	private static final int PREFIX_QUALITY = 3;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private Map<Integer, IntList> postings = new HashMap<>();
+	private Map<Long, Integer> documentsById = new HashMap<>();
+	private long[] ids = new long[INITIAL_CAPACITY];
+	private String[] keys = new String[INITIAL_CAPACITY];
+	private BitSet deleted = new BitSet();
+	private int documents;
+	private int deletedDocuments;
+
+	/**
+	 * Adds the entry, replacing any previous entry with the same id. Fields are ranked in the order
+	 * given: a match in the first field outranks one in the second, and so on.
+	 */
+	public void put(long id, String... fields) {
+		String key = key(fields);
+		lock.writeLock().lock();
+		try {
+			removeDocument(id);
+			addDocument(id, key);
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			removeDocument(id);
+			compactIfNeeded();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the ids of at most {@code limit} entries containing the query, best match first.
+	 * Queries shorter than {@link #MIN_QUERY_LENGTH} after normalization match nothing.
+	 */
+	public long[] search(String query, int limit) {
+		String normalized = normalize(query);
+		if (normalized.length() < MIN_QUERY_LENGTH || limit <= 0) {
+			return new long[0];
+		}
+		int[] trigrams = trigrams(normalized);
+		lock.readLock().lock();
+		try {
+			TopK top = new TopK(limit);
+			boolean complete = collect(trigrams(FIELD_START + normalized), normalized, top, true);
+			if (complete && !top.isFull()) {
+				collect(trigrams, normalized, top, false);
+			}
+			int[] ranked = top.drain();
+			long[] result = new long[ranked.length];
+			for (int i = 0; i < ranked.length; i++) {
+				result[i] = ids[ranked[i]];
+			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Offers the documents containing every trigram to the heap, either only the field prefix
+	 * matches or only the others. Returns false when the candidate budget ran out.
+	 */
+	private boolean collect(int[] trigrams, String query, TopK top, boolean prefixMatches) {
+		IntList[] lists = new IntList[trigrams.length];
+		for (int i = 0; i < trigrams.length; i++) {
+			lists[i] = postings.get(trigrams[i]);
+			if (lists[i] == null) {
+				return true;
+			}
+		}
+		Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+		int[] cursors = new int[lists.length];
+		IntList driver = lists[0];
+		int candidates = 0;
+		candidates:
+		for (int i = 0; i < driver.size; i++) {
+			int document = driver.values[i];
+			for (int l = 1; l < lists.length; l++) {
+				cursors[l] = lists[l].seek(document, cursors[l]);
+				if (cursors[l] >= lists[l].size) {
+					return true;
+				}
+				if (lists[l].values[cursors[l]] != document) {
+					continue candidates;
+				}
+			}
+			if (deleted.get(document)) {
+				continue;
+			}
+			if (++candidates > MAX_CANDIDATES) {
+				return false;
+			}
+			int score = score(keys[document], query);
+			if (score > 0 && (quality(score) >= PREFIX_QUALITY) == prefixMatches) {
+				top.offer(score, document);
+			}
+		}
+		return true;
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return documentsById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public static String normalize(String value) {
+		if (value == null) {
+			return "";
+		}
+		StringBuilder builder = new StringBuilder(value.length());
+		String lowerCase = value.trim().toLowerCase(Locale.ROOT);
+		for (int i = 0; i < lowerCase.length(); i++) {
+			char c = lowerCase.charAt(i);
+			if (!Character.isISOControl(c)) {
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+
+	private void addDocument(long id, String key) {
+		int document = documents++;
+		if (document == ids.length) {
+			ids = Arrays.copyOf(ids, document * 2);
+			keys = Arrays.copyOf(keys, document * 2);
+		}
+		ids[document] = id;
+		keys[document] = key;
+		documentsById.put(id, document);
+		for (int trigram : trigrams(key)) {
+			postings.computeIfAbsent(trigram, t -> new IntList()).add(document);
+		}
+	}
+
+	private void removeDocument(long id) {
+		Integer document = documentsById.remove(id);
+		if (document != null) {
+			deleted.set(document);
+			keys[document] = null;
+			deletedDocuments++;
+		}
+	}
+
+	private void compactIfNeeded() {
+		if (deletedDocuments < INITIAL_CAPACITY || deletedDocuments <= documentsById.size()) {
+			return;
+		}
+		long[] oldIds = ids;
+		String[] oldKeys = keys;
+		int oldDocuments = documents;
+		int capacity = Math.max(INITIAL_CAPACITY, documentsById.size() * 2);
+		postings = new HashMap<>();
+		documentsById = new HashMap<>();
+		ids = new long[capacity];
+		keys = new String[capacity];
+		deleted = new BitSet();
+		documents = 0;
+		deletedDocuments = 0;
+		for (int document = 0; document < oldDocuments; document++) {
+			if (oldKeys[document] != null) {
+				addDocument(oldIds[document], oldKeys[document]);
+			}
+		}
+		postings.values().forEach(IntList::trim);
+	}
+
+	private static String key(String... fields) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				builder.append(FIELD_SEPARATOR);
+			}
+			builder.append(FIELD_START).append(normalize(fields[i]));
+		}
+		return builder.toString();
+	}
+
+	private static int[] trigrams(String value) {
+		if (value.length() < 3) {
+			return new int[0];
+		}
+		int[] trigrams = new int[value.length() - 2];
+		for (int i = 0; i < trigrams.length; i++) {
+			trigrams[i] = (value.charAt(i) * 31 + value.charAt(i + 1)) * 31 + value.charAt(i + 2);
+		}
+		Arrays.sort(trigrams);
+		int distinct = 0;
+		for (int i = 0; i < trigrams.length; i++) {
+			if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+				trigrams[distinct++] = trigrams[i];
+			}
+		}
+		return Arrays.copyOf(trigrams, distinct);
+	}
+
+	/**
+	 * Scores the best occurrence of the query in the key: an exact field match beats a prefix,
+	 * which beats a word start, which beats any other substring; within the same quality earlier
+	 * fields weigh more. Returns 0 when the key does not contain the query.
+	 */
+	private static int score(String key, String query) {
+		int best = 0;
+		int fieldStart = 0;
+		for (int field = 0; fieldStart < key.length(); field++) {
+			int fieldEnd = key.indexOf(FIELD_SEPARATOR, fieldStart);
+			if (fieldEnd < 0) {
+				fieldEnd = key.length();
+			}
+			int contentStart = fieldStart + 1;
+			int position = key.indexOf(query, contentStart);
+			if (position >= 0 && position + query.length() <= fieldEnd) {
+				int quality;
+				if (position == contentStart) {
+					quality = position + query.length() == fieldEnd ? 4 : PREFIX_QUALITY;
+				} else {
+					quality = Character.isLetterOrDigit(key.charAt(position - 1)) ? 1 : 2;
+				}
+				best = Math.max(best, quality << 4 | (15 - Math.min(field, 15)));
+			}
+			fieldStart = fieldEnd + 1;
+		}
+		return best;
+	}
+
+	private static int quality(int score) {
+		return score >> 4;
+	}
+
+	private static final class IntList {
+		private int[] values = new int[4];
+		private int size;
+
+		private void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		/**
+		 * Index of the first value not less than {@code target}, searching from {@code from}.
+		 */
+		private int seek(int target, int from) {
+			int bound = 1;
+			while (from + bound < size && values[from + bound] < target) {
+				bound <<= 1;
+			}
+			int low = from + (bound >> 1);
+			int high = Math.min(from + bound, size);
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (values[middle] < target) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		private void trim() {
+			values = Arrays.copyOf(values, size);
+		}
+	}
+
+	/**
+	 * Bounded min-heap of (score, document) packed into longs; ties go to the older document.
+	 */
+	private static final class TopK {
+		private final long[] heap;
+		private int size;
+
+		private TopK(int capacity) {
+			this.heap = new long[capacity];
+		}
+
+		private void offer(int score, int document) {
+			long entry = (long) score << 32 | (~document & 0xFFFFFFFFL);
+			if (size < heap.length) {
+				heap[size] = entry;
+				siftUp(size++);
+			} else if (entry > heap[0]) {
+				heap[0] = entry;
+				siftDown(0);
+			}
+		}
+
+		private boolean isFull() {
+			return size == heap.length;
+		}
+
+		private int[] drain() {
+			int[] documents = new int[size];
+			for (int i = size - 1; i >= 0; i--) {
+				documents[i] = ~(int) heap[0];
+				heap[0] = heap[--size];
+				siftDown(0);
+			}
+			return documents;
+		}
+
+		private void siftUp(int index) {
+			while (index > 0) {
+				int parent = (index - 1) >>> 1;
+				if (heap[parent] <= heap[index]) {
+					return;
+				}
+				swap(parent, index);
+				index = parent;
+			}
+		}
+
+		private void siftDown(int index) {
+			while (true) {
+				int smallest = index;
+				int left = index * 2 + 1;
+				int right = left + 1;
+				if (left < size && heap[left] < heap[smallest]) {
+					smallest = left;
+				}
+				if (right < size && heap[right] < heap[smallest]) {
+					smallest = right;
+				}
+				if (smallest == index) {
+					return;
+				}
+				swap(smallest, index);
+				index = smallest;
+			}
+		}
+
+		private void swap(int a, int b) {
+			long value = heap[a];
+			heap[a] = heap[b];
+			heap[b] = value;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package nguyenduonghuy.usermanagement.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Tells which unique constraint an insert or update violated. Uses the constraint name Hibernate
+ * extracted for the dialect and falls back to the driver message, which names the index on both
+ * MySQL and H2.
+ */
+public class UniqueConstraints {
+
+	private UniqueConstraints() {
+	}
+
+	public static boolean isViolated(DataIntegrityViolationException exception, String constraintName) {
+		String constraint = exception.getCause() instanceof ConstraintViolationException
+				? ((ConstraintViolationException) exception.getCause()).getConstraintName() : null;
+		String violated = StringUtils.lowerCase(constraint != null ? constraint : exception.getMostSpecificCause().getMessage());
+		return StringUtils.contains(violated, constraintName);
+	}
+}
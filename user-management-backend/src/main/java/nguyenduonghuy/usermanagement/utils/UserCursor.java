@@ -0,0 +1,46 @@
+package nguyenduonghuy.usermanagement.utils;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.INVALID_USER_CURSOR;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import nguyenduonghuy.usermanagement.domain.UserSummary;
+import nguyenduonghuy.usermanagement.enumeration.UserSort;
+import nguyenduonghuy.usermanagement.exception.InvalidPageRequestException;
+
+/**
+ * Position in the user listing: the sort order and the sort key of the last row returned.
+ * Serialized as unpadded URL-safe Base64 so clients treat it as an opaque token.
+ */
+@Getter
+@AllArgsConstructor
+public class UserCursor {
+	private static final String SEPARATOR = "|";
+
+	private UserSort sort;
+	private Long id;
+	private LocalDateTime joinDate;
+
+	public static String encode(UserSort sort, UserSummary last) {
+		String joinDate = sort.isByJoinDate() ? String.valueOf(last.getJoinDate()) : "";
+		String value = sort.name() + SEPARATOR + last.getId() + SEPARATOR + joinDate;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static UserCursor decode(String cursor) {
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+			UserSort sort = UserSort.valueOf(parts[0]);
+			Long id = Long.valueOf(parts[1]);
+			LocalDateTime joinDate = sort.isByJoinDate() ? LocalDateTime.parse(parts[2]) : null;
+			return new UserCursor(sort, id, joinDate);
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+			throw new InvalidPageRequestException(INVALID_USER_CURSOR);
+		}
+	}
+}
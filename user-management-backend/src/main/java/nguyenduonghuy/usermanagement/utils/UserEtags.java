@@ -0,0 +1,63 @@
+package nguyenduonghuy.usermanagement.utils;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.INVALID_USER_ETAG;
+
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import nguyenduonghuy.usermanagement.domain.UserPage;
+import nguyenduonghuy.usermanagement.domain.UserSummary;
+import nguyenduonghuy.usermanagement.exception.UserVersionMismatchException;
+
+/**
+ * Strong entity tags for user representations. A user is tagged with its id and version, so a
+ * user recreated under the same username never matches an old tag. A page is tagged with a hash
+ * of the ids and versions it lists and of its next cursor.
+ */
+public final class UserEtags {
+	private static final HashFunction PAGE_HASH = Hashing.murmur3_128();
+	private static final String ANY = "*";
+	private static final char QUOTE = '"';
+	private static final char SEPARATOR = '.';
+
+	private UserEtags() {
+	}
+
+	public static String of(Long id, Long version) {
+		return QUOTE + String.valueOf(id) + SEPARATOR + version + QUOTE;
+	}
+
+	public static String of(UserPage page) {
+		Hasher hasher = PAGE_HASH.newHasher();
+		for (UserSummary user : page.getUsers()) {
+			hasher.putLong(user.getId()).putLong(user.getVersion() == null ? -1 : user.getVersion());
+		}
+		if (page.getNextCursor() != null) {
+			hasher.putString(page.getNextCursor(), StandardCharsets.UTF_8);
+		}
+		return QUOTE + hasher.hash().toString() + QUOTE;
+	}
+
+	/**
+	 * Version an {@code If-Match} header expects the user to have, or null when there is no
+	 * precondition. Weak tags, lists and tags of another user can never match strongly and fail.
+	 */
+	public static Long expectedVersion(String ifMatch, Long id) {
+		if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+			return null;
+		}
+		String etag = ifMatch.trim();
+		String prefix = QUOTE + String.valueOf(id) + SEPARATOR;
+		if (!etag.startsWith(prefix) || etag.length() <= prefix.length() + 1 || etag.charAt(etag.length() - 1) != QUOTE) {
+			throw new UserVersionMismatchException(INVALID_USER_ETAG + ifMatch);
+		}
+		try {
+			return Long.valueOf(etag.substring(prefix.length(), etag.length() - 1));
+		} catch (NumberFormatException e) {
+			throw new UserVersionMismatchException(INVALID_USER_ETAG + ifMatch);
+		}
+	}
+}
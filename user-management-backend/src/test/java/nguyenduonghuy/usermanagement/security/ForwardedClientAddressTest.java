@@ -0,0 +1,49 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"server.forward-headers-strategy=native", "login-attempt.ip-address.max-attempts=2" })
+public class ForwardedClientAddressTest {
+
+	@LocalServerPort
+	private int port;
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	@Test
+	@DisplayName("Clients behind the load balancer are limited by their forwarded address, not the proxy's")
+	public void canLimitPerForwardedClient() throws Exception {
+		// given
+		assertThat(login("203.0.113.10", "first")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		assertThat(login("203.0.113.10", "second")).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		// when
+		int sameClient = login("203.0.113.10", "third");
+		int otherClient = login("203.0.113.20", "fourth");
+		// then
+		assertThat(sameClient).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		assertThat(otherClient).isNotEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+	}
+
+	private int login(String clientAddress, String username) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/users/login"))
+				.header("Content-Type", "application/json")
+				.header("X-Forwarded-For", clientAddress)
+				.POST(BodyPublishers.ofString("{\"username\":\"" + username + "\",\"password\":\"wrong\"}"))
+				.build();
+		return httpClient.send(request, BodyHandlers.discarding()).statusCode();
+	}
+}
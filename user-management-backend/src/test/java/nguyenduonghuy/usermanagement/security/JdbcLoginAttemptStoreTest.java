@@ -0,0 +1,109 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import nguyenduonghuy.usermanagement.enumeration.LoginAttemptType;
+import nguyenduonghuy.usermanagement.service.impl.JdbcLoginAttemptStore;
+
+@DataJpaTest
+public class JdbcLoginAttemptStoreTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private JdbcLoginAttemptStore firstNode;
+	private JdbcLoginAttemptStore secondNode;
+
+	@BeforeEach
+	public void setUp() {
+		firstNode = new JdbcLoginAttemptStore(jdbcTemplate, 15, 15, 64, 64);
+		secondNode = new JdbcLoginAttemptStore(jdbcTemplate, 15, 15, 64, 64);
+	}
+
+	@Test
+	@DisplayName("Attempts counted locally until synchronized")
+	public void canCountLocally() {
+		// when
+		firstNode.increment(LoginAttemptType.USERNAME, "test123");
+		firstNode.increment(LoginAttemptType.USERNAME, "test123");
+		// then
+		assertThat(firstNode.count(LoginAttemptType.USERNAME, "test123")).isEqualTo(2);
+		assertThat(secondNode.count(LoginAttemptType.USERNAME, "test123")).isZero();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from login_attempt", Integer.class)).isZero();
+	}
+
+	@Test
+	@DisplayName("Attempts on different nodes converge on the shared count")
+	public void canShareAttempts() {
+		// given
+		firstNode.increment(LoginAttemptType.USERNAME, "test123");
+		firstNode.increment(LoginAttemptType.USERNAME, "test123");
+		secondNode.increment(LoginAttemptType.USERNAME, "test123");
+		secondNode.increment(LoginAttemptType.IP_ADDRESS, "0:0:0:0:0:0:0:1");
+		firstNode.count(LoginAttemptType.IP_ADDRESS, "0:0:0:0:0:0:0:1");
+		// when
+		firstNode.synchronize();
+		secondNode.synchronize();
+		firstNode.synchronize();
+		// then
+		assertThat(firstNode.count(LoginAttemptType.USERNAME, "test123")).isEqualTo(3);
+		assertThat(secondNode.count(LoginAttemptType.USERNAME, "test123")).isEqualTo(3);
+		assertThat(firstNode.count(LoginAttemptType.IP_ADDRESS, "0:0:0:0:0:0:0:1")).isEqualTo(1);
+		assertThat(firstNode.count(LoginAttemptType.IP_ADDRESS, "test123")).isZero();
+	}
+
+	@Test
+	@DisplayName("Reset on one node clears the key on every node")
+	public void canResetAcrossNodes() {
+		// given
+		firstNode.increment(LoginAttemptType.USERNAME, "test123");
+		firstNode.synchronize();
+		secondNode.synchronize();
+		// when
+		secondNode.reset(LoginAttemptType.USERNAME, "test123");
+		secondNode.synchronize();
+		firstNode.synchronize();
+		// then
+		assertThat(firstNode.count(LoginAttemptType.USERNAME, "test123")).isZero();
+		assertThat(secondNode.count(LoginAttemptType.USERNAME, "test123")).isZero();
+	}
+
+	@Test
+	@DisplayName("Only keys touched or checked on this node are pulled from the database")
+	public void canPullTrackedKeysOnly() {
+		// given
+		firstNode.increment(LoginAttemptType.USERNAME, "test123");
+		firstNode.increment(LoginAttemptType.USERNAME, "test456");
+		firstNode.synchronize();
+		// when
+		secondNode.synchronize();
+		int untracked = secondNode.size(LoginAttemptType.USERNAME);
+		secondNode.count(LoginAttemptType.USERNAME, "test123");
+		secondNode.synchronize();
+		// then
+		assertThat(untracked).isZero();
+		assertThat(secondNode.size(LoginAttemptType.USERNAME)).isEqualTo(1);
+		assertThat(secondNode.count(LoginAttemptType.USERNAME, "test123")).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Local maps stay within the configured capacity")
+	public void canBoundTrackedKeys() {
+		// given
+		JdbcLoginAttemptStore store = new JdbcLoginAttemptStore(jdbcTemplate, 15, 15, 8, 8);
+		// when
+		for (int i = 0; i < 1000; i++) {
+			store.increment(LoginAttemptType.IP_ADDRESS, "10.0." + (i / 256) + "." + (i % 256));
+		}
+		store.synchronize();
+		// then
+		assertThat(store.size(LoginAttemptType.IP_ADDRESS)).isLessThanOrEqualTo(16);
+	}
+}
@@ -0,0 +1,95 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.AUTHORITIES;
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.NGUYEN_DUONG_HUY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.domain.VerifiedToken;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.utils.JwtTokenProvider;
+
+public class JwtTokenProviderTest {
+
+	private static final String SECRET = "test-secret-for-signing-jwt-tokens";
+
+	private JwtTokenProvider underTest;
+	private UserPrincipal userPrincipal;
+
+	@BeforeEach
+	public void setUp() {
+		underTest = new JwtTokenProvider(new SimpleMeterRegistry(), SECRET, 100, 60);
+		User user = new User("test123", "test123", "test123@mail.com");
+		user.setRole(Role.ROLE_ADMIN.name());
+		userPrincipal = new UserPrincipal(user);
+	}
+
+	@Test
+	@DisplayName("Can verify generated token")
+	public void canVerifyToken() {
+		// given
+		String token = underTest.generateJwtToken(userPrincipal);
+		// when
+		VerifiedToken verifiedToken = underTest.verifyToken(token);
+		// then
+		assertThat(underTest.isTokenValid(verifiedToken)).isTrue();
+		assertThat(verifiedToken.getSubject()).isEqualTo("test123");
+		assertThat(verifiedToken.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+			.containsExactly(Role.ROLE_ADMIN.getAuthorities());
+	}
+
+	@Test
+	@DisplayName("Repeated verification of the same token is served from cache")
+	public void canReuseVerifiedToken() {
+		// given
+		String token = underTest.generateJwtToken(userPrincipal);
+		// when
+		VerifiedToken first = underTest.verifyToken(token);
+		VerifiedToken second = underTest.verifyToken(token);
+		// then
+		assertThat(second).isSameAs(first);
+		assertThat(underTest.getSubject(token)).isEqualTo("test123");
+	}
+
+	@Test
+	@DisplayName("Can verify token issued with the full authority array")
+	public void canVerifyLegacyToken() {
+		// given
+		String token = JWT.create()
+				.withIssuer(NGUYEN_DUONG_HUY)
+				.withSubject("test123")
+				.withArrayClaim(AUTHORITIES, Role.ROLE_USER.getAuthorities())
+				.withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+				.sign(Algorithm.HMAC512(SECRET.getBytes()));
+		// when
+		VerifiedToken verifiedToken = underTest.verifyToken(token);
+		// then
+		assertThat(verifiedToken.getPermissionMask()).isEqualTo(Role.ROLE_USER.getPermissionMask());
+		assertThat(verifiedToken.getAuthorities()).isSameAs(Role.ROLE_USER.getGrantedAuthorities());
+	}
+
+	@Test
+	@DisplayName("Cannot verify token signed with another secret")
+	public void cannotVerifyForeignToken() {
+		// given
+		String token = new JwtTokenProvider(new SimpleMeterRegistry(), "another-secret", 100, 60).generateJwtToken(userPrincipal);
+		// when & then
+		assertThatThrownBy(() -> underTest.verifyToken(token))
+			.isInstanceOf(JWTVerificationException.class);
+	}
+}
@@ -0,0 +1,81 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.utils.JwtTokenProvider;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MethodSecurityTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private JwtTokenProvider jwtTokenProvider;
+
+	@Test
+	@DisplayName("Token revocation requires user:delete in the token permission mask")
+	public void canRevokeTokenWithDeletePermissionOnly() throws Exception {
+		mockMvc.perform(delete("/api/users/token/some-token").header(AUTHORIZATION, bearer(Role.ROLE_ADMIN)))
+			.andExpect(status().isForbidden());
+		mockMvc.perform(delete("/api/users/token/some-token").header(AUTHORIZATION, bearer(Role.ROLE_SUPER_ADMIN)))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("Bulk updates require user:update, bulk delete requires user:delete")
+	public void canCheckBulkPermissionPerAction() throws Exception {
+		mockMvc.perform(post("/api/users/bulk/lock").header(AUTHORIZATION, bearer(Role.ROLE_USER))
+				.contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[-1]}"))
+			.andExpect(status().isForbidden());
+		mockMvc.perform(post("/api/users/bulk/lock").header(AUTHORIZATION, bearer(Role.ROLE_HR))
+				.contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[-1]}"))
+			.andExpect(status().isOk());
+		mockMvc.perform(post("/api/users/bulk/delete").header(AUTHORIZATION, bearer(Role.ROLE_HR))
+				.contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[-1]}"))
+			.andExpect(status().isForbidden());
+	}
+
+	@Test
+	@DisplayName("Import requires user:create")
+	public void canImportWithCreatePermissionOnly() throws Exception {
+		String ndjson = "{\"fullname\":\"Escalated\",\"username\":\"escalated\",\"email\":\"escalated@mail.com\",\"role\":\"ROLE_SUPER_ADMIN\"}\n";
+		mockMvc.perform(post("/api/users/import").header(AUTHORIZATION, bearer(Role.ROLE_HR))
+				.contentType("application/x-ndjson").content(ndjson))
+			.andExpect(status().isForbidden());
+		mockMvc.perform(post("/api/users/import").contentType("application/x-ndjson").content(ndjson))
+			.andExpect(status().isForbidden());
+		mockMvc.perform(post("/api/users/import").header(AUTHORIZATION, bearer(Role.ROLE_ADMIN))
+				.contentType("application/x-ndjson").content("[]"))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	@DisplayName("Delete without a token is rejected")
+	public void cannotDeleteAnonymously() throws Exception {
+		mockMvc.perform(delete("/api/users/delete/-1")).andExpect(status().isForbidden());
+	}
+
+	private String bearer(Role role) {
+		User user = new User(role.name(), role.name().toLowerCase(), role.name().toLowerCase() + "@mail.com");
+		user.setRole(role.name());
+		user.setActive(true);
+		user.setNotLocked(true);
+		return TOKEN_PREFIX + jwtTokenProvider.generateJwtToken(new UserPrincipal(user));
+	}
+}
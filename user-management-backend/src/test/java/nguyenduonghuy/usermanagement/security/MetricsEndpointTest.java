@@ -0,0 +1,94 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.LoginAttemptService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.utils.JwtTokenProvider;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class MetricsEndpointTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private JwtTokenProvider jwtTokenProvider;
+	@Autowired
+	private LoginAttemptService loginAttemptService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@MockBean
+	private EmailService emailService;
+
+	private User user;
+
+	@BeforeEach
+	public void setUp() {
+		user = new User("Metrics User", "metrics", "metrics@mail.com");
+		user.setRole(Role.ROLE_ADMIN.name());
+		user.setActive(true);
+		user.setNotLocked(true);
+		userRepository.save(user);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		jdbcTemplate.update("delete from user");
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@DisplayName("Hot path timers are scraped as Prometheus histograms")
+	public void canScrapeHotPathHistograms() throws Exception {
+		// given
+		String token = jwtTokenProvider.generateJwtToken(new UserPrincipal(user));
+		mockMvc.perform(get("/api/users/find/metrics").header(AUTHORIZATION, TOKEN_PREFIX + token))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/api/users/find/metrics").header(AUTHORIZATION, TOKEN_PREFIX + token))
+			.andExpect(status().isOk());
+		loginAttemptService.addUserToLoginAttemptCache("metrics");
+		loginAttemptService.hasExceededMaxAttempts("metrics");
+		// when
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		// then
+		assertThat(scrape)
+			.contains("security_jwt_sign_seconds_bucket{")
+			.contains("security_jwt_verify_seconds_count{cache=\"hit\",} 1.0")
+			.contains("security_jwt_verify_seconds_count{cache=\"miss\",} 1.0")
+			.contains("security_jwt_filter_seconds_bucket{")
+			.contains("cache_gets_total{cache=\"security.jwt.verified\",result=\"hit\",} 1.0")
+			.contains("users_avatar_seconds_count{operation=\"read\",}")
+			.contains("spring_data_repository_invocations_seconds_count{")
+			.contains("security_login_attempt_checks_total{result=\"tracked\",type=\"username\",} 1.0")
+			.contains("security_login_attempt_tracked{type=\"username\",} 1.0");
+	}
+}
@@ -0,0 +1,108 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nguyenduonghuy.usermanagement.exception.PasswordHashingUnavailableException;
+import nguyenduonghuy.usermanagement.service.PasswordHashingService;
+
+public class PasswordHashingServiceTest {
+
+	private MeterRegistry meterRegistry;
+	private PasswordHashingService underTest;
+
+	@BeforeEach
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		underTest = new PasswordHashingService(meterRegistry, 4, 2, 4);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		underTest.shutdown();
+	}
+
+	@Test
+	@DisplayName("Can encode and match on the worker pool")
+	public void canEncodeAndMatch() {
+		// when
+		String encoded = underTest.encode("password");
+		// then
+		assertThat(underTest.matches("password", encoded)).isTrue();
+		assertThat(underTest.matches("wrong", encoded)).isFalse();
+		assertThat(meterRegistry.get("security.password.hash").tag("operation", "match").timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Can encode a batch in parallel without being rejected")
+	public void canEncodeAll() {
+		// given
+		List<String> passwords = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			passwords.add("password" + i);
+		}
+		// when
+		List<String> encoded = underTest.encodeAll(passwords);
+		// then
+		assertThat(encoded).hasSize(20);
+		for (int i = 0; i < 20; i++) {
+			assertThat(underTest.matches("password" + i, encoded.get(i))).isTrue();
+		}
+		assertThat(meterRegistry.get("security.password.hash.rejected").counter().count()).isZero();
+	}
+
+	@Test
+	@DisplayName("Hashes with another cost need an upgrade")
+	public void canDetectCostChange() {
+		assertThat(underTest.upgradeEncoding(underTest.encode("password"))).isFalse();
+		assertThat(underTest.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password"))).isTrue();
+		assertThat(underTest.upgradeEncoding("not-a-bcrypt-hash")).isFalse();
+	}
+
+	@Test
+	@DisplayName("Saturated pool rejects requests immediately")
+	public void canRejectWhenSaturated() throws Exception {
+		// given
+		PasswordHashingService saturated = new PasswordHashingService(meterRegistry, 12, 1, 1);
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		// when
+		for (int i = 0; i < 8; i++) {
+			results.add(callers.submit(() -> {
+				start.await();
+				try {
+					saturated.encode("password");
+					return true;
+				} catch (PasswordHashingUnavailableException e) {
+					return false;
+				}
+			}));
+		}
+		start.countDown();
+		int rejected = 0;
+		for (Future<Boolean> result : results) {
+			rejected += result.get(30, TimeUnit.SECONDS) ? 0 : 1;
+		}
+		callers.shutdown();
+		saturated.shutdown();
+		// then
+		assertThat(rejected).isGreaterThanOrEqualTo(4);
+		assertThat(meterRegistry.get("security.password.hash.rejected").counter().count()).isEqualTo(rejected);
+	}
+}
@@ -0,0 +1,72 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import nguyenduonghuy.usermanagement.domain.JwtAuthenticationToken;
+import nguyenduonghuy.usermanagement.enumeration.Permission;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.utils.PermissionChecker;
+
+public class PermissionCheckerTest {
+
+	private PermissionChecker underTest;
+
+	@BeforeEach
+	public void setUp() {
+		underTest = new PermissionChecker();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	@DisplayName("Role authorities are precomputed and shared")
+	public void canShareRoleAuthorities() {
+		assertThat(Role.ROLE_HR.getGrantedAuthorities()).isSameAs(Role.ROLE_MANAGER.getGrantedAuthorities());
+		assertThat(Role.ROLE_SUPER_ADMIN.getPermissionMask()).isEqualTo(Permission.maskOf(Role.ROLE_SUPER_ADMIN.getAuthorities()));
+		assertThat(Role.ROLE_USER.getGrantedAuthorities()).extracting("authority").containsExactly("user:read");
+	}
+
+	@Test
+	@DisplayName("Permission bits are fixed, tokens already issued keep their meaning")
+	public void canKeepPermissionBits() {
+		assertThat(Permission.USER_READ.getMask()).isEqualTo(1);
+		assertThat(Permission.USER_CREATE.getMask()).isEqualTo(2);
+		assertThat(Permission.USER_UPDATE.getMask()).isEqualTo(4);
+		assertThat(Permission.USER_DELETE.getMask()).isEqualTo(8);
+	}
+
+	@Test
+	@DisplayName("Can check permission against the token bitmask")
+	public void canCheckJwtPermission() {
+		// given
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken("test123", Role.ROLE_ADMIN.getPermissionMask()));
+		// when & then
+		assertThat(underTest.has("user:create")).isTrue();
+		assertThat(underTest.has("user:delete")).isFalse();
+		assertThat(underTest.has("unknown:permission")).isFalse();
+	}
+
+	@Test
+	@DisplayName("Can check permission against plain granted authorities")
+	public void canCheckAuthorityPermission() {
+		// given
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("test123", null,
+				Arrays.asList(new SimpleGrantedAuthority("user:delete"))));
+		// when & then
+		assertThat(underTest.has("user:delete")).isTrue();
+		assertThat(underTest.has("user:read")).isFalse();
+	}
+}
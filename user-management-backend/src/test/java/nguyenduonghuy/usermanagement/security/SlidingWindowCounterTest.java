@@ -0,0 +1,102 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import nguyenduonghuy.usermanagement.utils.SlidingWindowCounter;
+
+public class SlidingWindowCounterTest {
+
+	private static final long WINDOW_MILLIS = 15_000;
+	private static final int BUCKETS = 15;
+
+	private AtomicLong clock;
+	private SlidingWindowCounter underTest;
+
+	@BeforeEach
+	public void setUp() {
+		clock = new AtomicLong(1_000_000);
+		underTest = new SlidingWindowCounter(1024, 4, WINDOW_MILLIS, BUCKETS, clock::get);
+	}
+
+	@Test
+	@DisplayName("Counts events per key inside the window")
+	public void canCountEvents() {
+		// when
+		underTest.increment("test123");
+		underTest.increment("test123");
+		underTest.increment("other");
+		// then
+		assertThat(underTest.count("test123")).isEqualTo(2);
+		assertThat(underTest.count("other")).isEqualTo(1);
+		assertThat(underTest.count("unknown")).isZero();
+	}
+
+	@Test
+	@DisplayName("Events slide out of the window bucket by bucket")
+	public void canExpireEvents() {
+		// given
+		underTest.increment("test123");
+		clock.addAndGet(5_000);
+		underTest.increment("test123");
+		// when
+		clock.addAndGet(10_000);
+		// then
+		assertThat(underTest.count("test123")).isEqualTo(1);
+		clock.addAndGet(5_000);
+		assertThat(underTest.count("test123")).isZero();
+		assertThat(underTest.size()).isZero();
+	}
+
+	@Test
+	@DisplayName("Reset clears the key")
+	public void canResetKey() {
+		// given
+		underTest.increment("test123");
+		underTest.increment("test123");
+		// when
+		underTest.reset("test123");
+		// then
+		assertThat(underTest.count("test123")).isZero();
+		assertThat(underTest.increment("test123")).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Memory stays bounded when keys exceed capacity")
+	public void canStayBounded() {
+		// when
+		for (int i = 0; i < 100_000; i++) {
+			underTest.increment("ip-" + i);
+		}
+		// then
+		assertThat(underTest.size()).isLessThanOrEqualTo(underTest.capacity());
+		assertThat(underTest.increment("ip-99999")).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Concurrent increments are not lost")
+	public void canIncrementConcurrently() throws InterruptedException {
+		// given
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		// when
+		for (int i = 0; i < 8; i++) {
+			executor.execute(() -> {
+				for (int j = 0; j < 25; j++) {
+					underTest.increment("test123");
+				}
+			});
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		// then
+		assertThat(underTest.count("test123")).isEqualTo(200);
+	}
+}
@@ -0,0 +1,122 @@
+package nguyenduonghuy.usermanagement.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import nguyenduonghuy.usermanagement.domain.RevokedToken;
+import nguyenduonghuy.usermanagement.domain.UserRevocation;
+import nguyenduonghuy.usermanagement.domain.VerifiedToken;
+import nguyenduonghuy.usermanagement.repository.RevokedTokenRepository;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.TokenRevocationService;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+	@Mock
+	private RevokedTokenRepository revokedTokenRepository;
+	@Mock
+	private UserRepository userRepository;
+
+	private TokenRevocationService underTest;
+
+	@BeforeEach
+	public void setUp() {
+		underTest = new TokenRevocationService(revokedTokenRepository, userRepository, 1000, 0.001, 10_000);
+	}
+
+	@Test
+	@DisplayName("Token that was never revoked is not looked up in the store")
+	public void canSkipLookupForUnknownToken() {
+		// when
+		boolean revoked = underTest.isRevoked("never-revoked");
+		// then
+		assertThat(revoked).isFalse();
+		verify(revokedTokenRepository, never()).existsById(anyString());
+	}
+
+	@Test
+	@DisplayName("Revoked token is confirmed against the store")
+	public void canDetectRevokedToken() {
+		// given
+		BDDMockito.given(revokedTokenRepository.existsById("revoked")).willReturn(true);
+		underTest.revoke("revoked", new Date(System.currentTimeMillis() + 60_000));
+		// when
+		boolean revoked = underTest.isRevoked("revoked");
+		// then
+		assertThat(revoked).isTrue();
+		verify(revokedTokenRepository).save(any(RevokedToken.class));
+	}
+
+	@Test
+	@DisplayName("Purging expired tokens rebuilds the filter from the store")
+	public void canPurgeExpiredTokens() {
+		// given
+		underTest.revoke("expired", new Date(System.currentTimeMillis() - 60_000));
+		BDDMockito.given(revokedTokenRepository.deleteExpired(any(Date.class))).willReturn(1);
+		BDDMockito.given(revokedTokenRepository.findActiveTokenIds(any(Date.class))).willReturn(Collections.emptyList());
+		// when
+		underTest.purgeExpiredTokens();
+		// then
+		assertThat(underTest.isRevoked("expired")).isFalse();
+		verify(revokedTokenRepository, never()).existsById(anyString());
+	}
+
+	@Test
+	@DisplayName("Token revoked on another node is picked up by the refresh")
+	public void canRefreshTokensRevokedElsewhere() {
+		// given
+		BDDMockito.given(revokedTokenRepository.findTokenIdsRevokedSince(any(Date.class), any(Date.class)))
+				.willReturn(Collections.singletonList("elsewhere"));
+		BDDMockito.given(revokedTokenRepository.existsById("elsewhere")).willReturn(true);
+		assertThat(underTest.isRevoked("elsewhere")).isFalse();
+		// when
+		underTest.refresh();
+		// then
+		assertThat(underTest.isRevoked("elsewhere")).isTrue();
+	}
+
+	@Test
+	@DisplayName("Tokens issued before a user was locked on another node are rejected after the refresh")
+	public void canRefreshUserCutoffs() {
+		// given
+		LocalDateTime lockedAt = LocalDateTime.now();
+		BDDMockito.given(userRepository.findRevocationsSince(any(LocalDateTime.class)))
+				.willReturn(Collections.singletonList(new UserRevocation("locked", lockedAt)));
+		// when
+		underTest.refresh();
+		// then
+		assertThat(underTest.isRevoked(token("locked", -60_000))).isTrue();
+		assertThat(underTest.isRevoked(token("other", -60_000))).isFalse();
+	}
+
+	@Test
+	@DisplayName("A user cutoff rejects older tokens only")
+	public void canRevokeTokensIssuedBeforeCutoff() {
+		// when
+		underTest.revokeUser("locked", LocalDateTime.now());
+		// then
+		assertThat(underTest.isRevoked(token("locked", -60_000))).isTrue();
+		assertThat(underTest.isRevoked(token("locked", 60_000))).isFalse();
+	}
+
+	private static VerifiedToken token(String subject, long issuedInMillis) {
+		long issuedAt = System.currentTimeMillis() + issuedInMillis;
+		return new VerifiedToken(subject, subject + "-token", 0, new Date(issuedAt), new Date(issuedAt + 3_600_000));
+	}
+}
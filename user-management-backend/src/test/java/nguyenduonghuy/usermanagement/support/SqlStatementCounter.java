@@ -0,0 +1,116 @@
+package nguyenduonghuy.usermanagement.support;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Counts the SQL statements sent to the database while an action runs. Import it into a Spring
+ * test and it wraps the application {@link DataSource}, so Hibernate, Spring Data and
+ * {@code JdbcTemplate} statements are all seen. Every execution is one statement: a prepared
+ * statement run twice counts twice and a JDBC batch counts once, which matches the round trips.
+ * <p>
+ * Only statements issued on the thread calling {@link #count(SqlAction)} are recorded, so
+ * scheduled jobs cannot make a budget flaky; work handed to another thread (streamed exports,
+ * after-commit emails) is not counted.
+ */
+public class SqlStatementCounter implements BeanPostProcessor {
+	private static final ThreadLocal<SqlStatements> RECORDING = new ThreadLocal<>();
+
+	@FunctionalInterface
+	public interface SqlAction {
+		void run() throws Exception;
+	}
+
+	public SqlStatements count(SqlAction action) throws Exception {
+		SqlStatements statements = new SqlStatements();
+		SqlStatements previous = RECORDING.get();
+		RECORDING.set(statements);
+		try {
+			action.run();
+		} finally {
+			if (previous == null) {
+				RECORDING.remove();
+			} else {
+				RECORDING.set(previous);
+			}
+		}
+		return statements;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource && !(bean instanceof CountingDataSource)) {
+			return new CountingDataSource((DataSource) bean);
+		}
+		return bean;
+	}
+
+	private static void record(String sql) {
+		SqlStatements statements = RECORDING.get();
+		if (statements != null) {
+			statements.add(sql);
+		}
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private static class CountingDataSource extends DelegatingDataSource {
+
+		private CountingDataSource(DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return countingConnection(super.getConnection());
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return countingConnection(super.getConnection(username, password));
+		}
+
+		private static Connection countingConnection(Connection connection) {
+			return proxy(Connection.class, (proxy, method, args) -> {
+				Object result = invoke(connection, method, args);
+				if (result instanceof Statement) {
+					String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+					return countingStatement(method.getReturnType(), (Statement) result, sql);
+				}
+				return result;
+			});
+		}
+
+		private static Object countingStatement(Class<?> type, Statement statement, String preparedSql) {
+			return proxy(type, (proxy, method, args) -> {
+				String name = method.getName();
+				if (name.startsWith("execute")) {
+					boolean batch = name.endsWith("Batch");
+					record(!batch && args != null && args.length > 0 ? (String) args[0] : preparedSql);
+				}
+				return invoke(statement, method, args);
+			});
+		}
+	}
+}
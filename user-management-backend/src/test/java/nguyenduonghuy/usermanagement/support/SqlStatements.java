@@ -0,0 +1,93 @@
+package nguyenduonghuy.usermanagement.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Statements recorded by {@link SqlStatementCounter}. The {@code has*} checks assert an exact
+ * budget and list every recorded statement when it is missed, so the offending query shows up
+ * in the build output.
+ */
+public class SqlStatements {
+
+	private List<String> statements = new ArrayList<>();
+
+	void add(String sql) {
+		statements.add(sql == null ? "" : sql.trim());
+	}
+
+	public List<String> getStatements() {
+		return statements;
+	}
+
+	public int total() {
+		return statements.size();
+	}
+
+	public int selects() {
+		return count("select", "with");
+	}
+
+	public int inserts() {
+		return count("insert");
+	}
+
+	public int updates() {
+		return count("update");
+	}
+
+	public int deletes() {
+		return count("delete");
+	}
+
+	public SqlStatements hasTotal(int expected) {
+		return check("statements", total(), expected);
+	}
+
+	public SqlStatements hasSelects(int expected) {
+		return check("selects", selects(), expected);
+	}
+
+	public SqlStatements hasInserts(int expected) {
+		return check("inserts", inserts(), expected);
+	}
+
+	public SqlStatements hasUpdates(int expected) {
+		return check("updates", updates(), expected);
+	}
+
+	public SqlStatements hasDeletes(int expected) {
+		return check("deletes", deletes(), expected);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < statements.size(); i++) {
+			builder.append(System.lineSeparator()).append("  ").append(i + 1).append(". ").append(statements.get(i));
+		}
+		return builder.toString();
+	}
+
+	private int count(String... keywords) {
+		int count = 0;
+		for (String sql : statements) {
+			String lower = sql.toLowerCase(Locale.ROOT);
+			for (String keyword : keywords) {
+				if (lower.startsWith(keyword)) {
+					count++;
+					break;
+				}
+			}
+		}
+		return count;
+	}
+
+	private SqlStatements check(String kind, int actual, int expected) {
+		if (actual != expected) {
+			throw new AssertionError("Expected " + expected + " " + kind + " but was " + actual + ":" + this);
+		}
+		return this;
+	}
+}
@@ -0,0 +1,106 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.LastLoginUpdateService;
+
+@DataJpaTest
+public class LastLoginUpdateServiceTest {
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private EntityManager entityManager;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private LastLoginUpdateService underTest;
+	private User user;
+
+	@BeforeEach
+	public void setUp() {
+		underTest = new LastLoginUpdateService(entityManager, jdbcTemplate, new SimpleMeterRegistry(), 100, 10);
+		user = new User("test01", "test01", "test01@mail.com");
+		user.setLastLoginDate(LocalDateTime.now().minusDays(1));
+		user = userRepository.saveAndFlush(user);
+	}
+
+	@Test
+	@DisplayName("Logins are coalesced and written in one flush")
+	public void canCoalesceLogins() {
+		// given
+		LocalDateTime previousLogin = user.getLastLoginDate();
+		underTest.recordLogin(user);
+		underTest.recordLogin(user);
+		LocalDateTime latestLogin = user.getLastLoginDate();
+		// when
+		assertThat(underTest.getPendingCount()).isEqualTo(1);
+		underTest.flush();
+		// then
+		assertThat(underTest.getPendingCount()).isZero();
+		User stored = userRepository.findById(user.getId()).get();
+		assertThat(stored.getLastLoginDate()).isCloseTo(latestLogin, within(1, ChronoUnit.MILLIS));
+		assertThat(stored.getLastLoginDateDisplay()).isCloseTo(previousLogin, within(1, ChronoUnit.MILLIS));
+	}
+
+	@Test
+	@DisplayName("Recording a login does not make the entity dirty")
+	public void canRecordLoginWithoutUpdate() {
+		// when
+		underTest.recordLogin(user);
+		// then
+		assertThat(entityManager.contains(user)).isFalse();
+		assertThat(underTest.getPendingCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("A failing database never blocks logins and the pending map stays bounded")
+	public void canBoundPendingWhileDatabaseFails() throws InterruptedException {
+		// given
+		List<String> flushThreads = new CopyOnWriteArrayList<>();
+		JdbcTemplate failingJdbcTemplate = mock(JdbcTemplate.class);
+		when(failingJdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+			flushThreads.add(Thread.currentThread().getName());
+			throw new DataAccessResourceFailureException("database is down");
+		});
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		LastLoginUpdateService failing = new LastLoginUpdateService(mock(EntityManager.class), failingJdbcTemplate, meterRegistry, 4, 10);
+		// when
+		for (long id = 1; id <= 20; id++) {
+			User login = new User("user" + id, "user" + id, "user" + id + "@mail.com");
+			login.setId(id);
+			failing.recordLogin(login);
+		}
+		List<String> threadsDuringLogins = new ArrayList<>(flushThreads);
+		failing.shutdown();
+		// then
+		double dropped = meterRegistry.counter("users.last_login.dropped").count();
+		assertThat(threadsDuringLogins).doesNotContain(Thread.currentThread().getName());
+		assertThat(failing.getPendingCount()).isLessThanOrEqualTo(4);
+		assertThat(failing.getPendingCount() + dropped).isEqualTo(20);
+	}
+}
@@ -0,0 +1,83 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import nguyenduonghuy.usermanagement.utils.TrigramIndex;
+
+public class TrigramIndexTest {
+
+	private TrigramIndex underTest;
+
+	@BeforeEach
+	public void setUp() {
+		underTest = new TrigramIndex();
+		underTest.put(1L, "huynguyen", "huy@mail.com", "Nguyen Duong Huy");
+		underTest.put(2L, "tranhuy", "tran@mail.com", "Tran Van An");
+		underTest.put(3L, "huy", "h@mail.com", "Huy Le");
+		underTest.put(4L, "anna", "anna.huy@mail.com", "Anna");
+	}
+
+	@Test
+	@DisplayName("Finds substrings in every field, exact and prefix matches first")
+	public void canRankMatches() {
+		// when
+		long[] ids = underTest.search("HUY", 10);
+		// then
+		assertThat(ids).containsExactly(3L, 1L, 4L, 2L);
+	}
+
+	@Test
+	@DisplayName("Limit keeps only the best matches")
+	public void canLimitMatches() {
+		// when & then
+		assertThat(underTest.search("huy", 2)).containsExactly(3L, 1L);
+	}
+
+	@Test
+	@DisplayName("Candidates sharing every trigram but not the substring are dropped")
+	public void cannotMatchScatteredTrigrams() {
+		// given
+		underTest.put(5L, "abc-bcd", "x@mail.com", "X");
+		// when & then
+		assertThat(underTest.search("abcd", 10)).isEmpty();
+		assertThat(underTest.search("abc-b", 10)).containsExactly(5L);
+	}
+
+	@Test
+	@DisplayName("Updates replace and removals drop entries")
+	public void canUpdateAndRemove() {
+		// when
+		underTest.put(2L, "tranvan", "tran@mail.com", "Tran Van An");
+		underTest.remove(4L);
+		// then
+		assertThat(underTest.search("huy", 10)).containsExactly(3L, 1L);
+		assertThat(underTest.search("tranvan", 10)).containsExactly(2L);
+		assertThat(underTest.size()).isEqualTo(3);
+	}
+
+	@Test
+	@DisplayName("Short queries match nothing")
+	public void cannotSearchShortQuery() {
+		assertThat(underTest.search("hu", 10)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Index stays correct after tombstones are compacted")
+	public void canCompact() {
+		// when
+		for (int round = 0; round < 5; round++) {
+			for (long id = 100; id < 1100; id++) {
+				underTest.put(id, "user" + id + "r" + round, "user" + id + "@mail.com", "User");
+			}
+		}
+		// then
+		assertThat(underTest.size()).isEqualTo(1004);
+		assertThat(underTest.search("user500r4", 10)).containsExactly(500L);
+		assertThat(underTest.search("user500r3", 10)).isEmpty();
+		assertThat(underTest.search("huy", 10)).containsExactly(3L, 1L, 4L, 2L);
+	}
+}
@@ -0,0 +1,81 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.ResultSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.migration.MigrationRunner;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+
+@SpringBootTest
+public class UserAuthoritiesTest {
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private MigrationRunner migrationRunner;
+
+	@AfterEach
+	public void tearDown() {
+		userRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("Authorities follow the role without being stored")
+	public void canDeriveAuthoritiesFromRole() {
+		// given
+		User user = new User("test01", "test01", "test01@mail.com");
+		user.setRole(Role.ROLE_HR.name());
+		userRepository.save(user);
+		// when
+		User found = userRepository.findByUsername("test01");
+		found.setRole(Role.ROLE_ADMIN.name());
+		// then
+		assertThat(found.getAuthorities()).containsExactly(Role.ROLE_ADMIN.getAuthorities());
+		assertThat(new UserPrincipal(found).getPermissionMask()).isEqualTo(Role.ROLE_ADMIN.getPermissionMask());
+		assertThat(hasAuthoritiesColumn()).isFalse();
+	}
+
+	@Test
+	@DisplayName("Unknown roles grant nothing")
+	public void cannotDeriveAuthoritiesFromUnknownRole() {
+		User user = new User("test01", "test01", "test01@mail.com");
+		user.setRole("ROLE_UNKNOWN");
+
+		assertThat(user.getAuthorities()).isEmpty();
+		assertThat(new UserPrincipal(user).getAuthorities()).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Migration drops the legacy serialized column")
+	public void canDropLegacyColumn() {
+		// given
+		jdbcTemplate.execute("alter table user add column authorities varbinary(255)");
+		jdbcTemplate.update("delete from schema_migration where id = '002-user-drop-authorities'");
+		// when
+		migrationRunner.migrate();
+		// then
+		assertThat(hasAuthoritiesColumn()).isFalse();
+	}
+
+	private boolean hasAuthoritiesColumn() {
+		return jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+			try (ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), null, "USER", "AUTHORITIES")) {
+				return columns.next();
+			}
+		});
+	}
+}
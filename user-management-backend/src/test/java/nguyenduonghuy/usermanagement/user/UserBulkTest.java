@@ -0,0 +1,191 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.VerifiedToken;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.TokenRevocationService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserSearchService;
+import nguyenduonghuy.usermanagement.service.UserService;
+
+@SpringBootTest(properties = "user.bulk.chunk-size=2")
+@AutoConfigureMockMvc
+public class UserBulkTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private UserSearchService userSearchService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TokenRevocationService tokenRevocationService;
+	@MockBean
+	private EmailService emailService;
+
+	private List<Long> ids;
+
+	@BeforeEach
+	public void setUp() {
+		ids = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			User user = new User("Bulk " + i, "bulk" + i, "bulk" + i + "@mail.com");
+			user.setPassword("secret-hash");
+			user.setRole(i < 3 ? Role.ROLE_USER.name() : Role.ROLE_HR.name());
+			user.setActive(true);
+			user.setNotLocked(true);
+			user = userRepository.save(user);
+			userSearchService.index(user);
+			ids.add(user.getId());
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		// Tombstoned rows are invisible to the repository
+		jdbcTemplate.update("delete from user");
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@WithMockUser(authorities = { "user:update", "user:delete" })
+	@DisplayName("Lock by ids runs one update per chunk and evicts cached users")
+	public void canLockByIds() throws Exception {
+		// given
+		assertThat(userService.findByUsername("bulk0").isNotLocked()).isTrue();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		// when
+		mockMvc.perform(post("/api/users/bulk/lock").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"ids\":[" + ids.get(0) + "," + ids.get(1) + "," + ids.get(0) + "]}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.action").value("LOCK"))
+			.andExpect(jsonPath("$.matched").value(2))
+			.andExpect(jsonPath("$.updated").value(2));
+		// then
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(userService.findByUsername("bulk0").isNotLocked()).isFalse();
+		assertThat(userService.findByUsername("bulk1").isNotLocked()).isFalse();
+		assertThat(userService.findByUsername("bulk2").isNotLocked()).isTrue();
+	}
+
+	@Test
+	@WithMockUser(authorities = { "user:update", "user:delete" })
+	@DisplayName("Bulk lock revokes the tokens already issued to the locked users")
+	public void canRevokeTokensOnLock() throws Exception {
+		// given
+		Date issuedAt = new Date(System.currentTimeMillis() - 60_000);
+		VerifiedToken locked = new VerifiedToken("bulk0", "bulk0-token", 0, issuedAt, new Date(issuedAt.getTime() + 3_600_000));
+		VerifiedToken unlocked = new VerifiedToken("bulk2", "bulk2-token", 0, issuedAt, new Date(issuedAt.getTime() + 3_600_000));
+		// when
+		mockMvc.perform(post("/api/users/bulk/lock").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"ids\":[" + ids.get(0) + "]}"))
+			.andExpect(status().isOk());
+		tokenRevocationService.refresh();
+		// then
+		assertThat(tokenRevocationService.isRevoked(locked)).isTrue();
+		assertThat(tokenRevocationService.isRevoked(unlocked)).isFalse();
+	}
+
+	@Test
+	@WithMockUser(authorities = { "user:update", "user:delete" })
+	@DisplayName("Role change by filter covers every chunk")
+	public void canChangeRoleByFilter() throws Exception {
+		// when
+		mockMvc.perform(post("/api/users/bulk/change-role").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"filter\":{\"role\":\"ROLE_USER\",\"active\":true},\"role\":\"ROLE_MANAGER\"}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.matched").value(3))
+			.andExpect(jsonPath("$.updated").value(3));
+		// then
+		assertThat(userRepository.findIdsByFilter(Role.ROLE_MANAGER.name(), null, null)).containsExactlyElementsOf(ids.subList(0, 3));
+		assertThat(userService.findByUsername("bulk3").getRole()).isEqualTo(Role.ROLE_HR.name());
+	}
+
+	@Test
+	@WithMockUser(authorities = { "user:update", "user:delete" })
+	@DisplayName("Deactivate and delete report their counts, deleted users are tombstoned")
+	public void canDeactivateAndDelete() throws Exception {
+		// when
+		mockMvc.perform(post("/api/users/bulk/deactivate").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"filter\":{\"role\":\"ROLE_HR\"}}"))
+			.andExpect(jsonPath("$.updated").value(2));
+		mockMvc.perform(post("/api/users/bulk/delete").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"filter\":{\"active\":false}}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.updated").value(2));
+		// then
+		assertThat(userRepository.count()).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from user where deleted_at is not null", Integer.class)).isEqualTo(2);
+		assertThat(userSearchService.search("bulk", 10)).extracting("username").containsExactly("bulk0", "bulk1", "bulk2");
+	}
+
+	@Test
+	@WithMockUser(authorities = { "user:update", "user:delete" })
+	@DisplayName("Password reset hashes new passwords and queues the emails")
+	public void canResetPasswords() throws Exception {
+		// when
+		mockMvc.perform(post("/api/users/bulk/reset-password").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"ids\":[" + ids.get(3) + "," + ids.get(4) + "]}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.updated").value(2));
+		// then
+		assertThat(userRepository.findById(ids.get(3)).get().getPassword()).startsWith("$2");
+		assertThat(userRepository.findById(ids.get(0)).get().getPassword()).isEqualTo("secret-hash");
+		verify(emailService, timeout(5_000)).sendNewPasswordToEmail(eq("Bulk 3"), anyString(), eq("bulk3@mail.com"));
+		verify(emailService, timeout(5_000)).sendNewPasswordToEmail(eq("Bulk 4"), anyString(), eq("bulk4@mail.com"));
+	}
+
+	@Test
+	@WithMockUser(authorities = { "user:update", "user:delete" })
+	@DisplayName("Requests without targets, role or a known action are rejected")
+	public void cannotApplyInvalidRequest() throws Exception {
+		mockMvc.perform(post("/api/users/bulk/lock").contentType(MediaType.APPLICATION_JSON).content("{\"filter\":{}}"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/users/bulk/change-role").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[1]}"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/users/bulk/explode").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[1]}"))
+			.andExpect(status().isBadRequest());
+		assertThat(userRepository.findIdsByFilter(null, null, false)).isEmpty();
+	}
+}
@@ -0,0 +1,97 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheServiceTest {
+
+	@Mock
+	private Function<String, User> loader;
+
+	private SimpleMeterRegistry meterRegistry;
+	private UserCacheService underTest;
+	private User user;
+
+	@BeforeEach
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		underTest = new UserCacheService(meterRegistry, 100, 60);
+		user = new User("test123", "test123", "test123@mail.com");
+		user.setId(1L);
+		user.setNotLocked(true);
+	}
+
+	@Test
+	@DisplayName("Second lookup is a hit and returns an independent copy")
+	public void canServeCopyFromCache() {
+		// given
+		BDDMockito.given(loader.apply("test123")).willReturn(user);
+		// when
+		User first = underTest.getByUsername("test123", loader);
+		User second = underTest.getByUsername("test123", loader);
+		second.setNotLocked(false);
+		// then
+		verify(loader, times(1)).apply("test123");
+		assertThat(first).isSameAs(user);
+		assertThat(second).isNotSameAs(user);
+		assertThat(underTest.getByUsername("test123", loader).isNotLocked()).isTrue();
+		assertThat(meterRegistry.get("cache.gets").tag("cache", "users.by_id").tag("result", "hit").functionCounter().count())
+			.isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("Missing users are not cached")
+	public void cannotCacheMissingUser() {
+		// when
+		underTest.getByUsername("test123", loader);
+		underTest.getByUsername("test123", loader);
+		// then
+		verify(loader, times(2)).apply("test123");
+	}
+
+	@Test
+	@DisplayName("Evicted user is loaded again with its new flags")
+	public void canEvictUser() {
+		// given
+		underTest.put(user);
+		User locked = new User("test123", "test123", "test123@mail.com");
+		locked.setId(1L);
+		locked.setNotLocked(false);
+		BDDMockito.given(loader.apply("test123@mail.com")).willReturn(locked);
+		// when
+		underTest.evict(user);
+		// then
+		assertThat(underTest.getByEmail("test123@mail.com", loader).isNotLocked()).isFalse();
+	}
+
+	@Test
+	@DisplayName("Stale username index entry is ignored after a rename")
+	public void cannotReturnRenamedUser() {
+		// given
+		underTest.put(user);
+		User renamed = new User("test123", "renamed", "test123@mail.com");
+		renamed.setId(1L);
+		underTest.put(renamed);
+		// when
+		User found = underTest.getByUsername("test123", loader);
+		// then
+		assertThat(found).isNull();
+		verify(loader).apply("test123");
+	}
+}
@@ -0,0 +1,122 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static nguyenduonghuy.usermanagement.constant.FileConstant.USER_FOLDER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.tomcat.util.http.fileupload.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.exception.UserNotFoundException;
+import nguyenduonghuy.usermanagement.exception.UsernameExistException;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserReaperService;
+import nguyenduonghuy.usermanagement.service.UserSearchService;
+import nguyenduonghuy.usermanagement.service.UserService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserDeletionTest {
+
+	private static final String USERNAME = "reaped";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private UserSearchService userSearchService;
+	@Autowired
+	private UserReaperService userReaperService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@MockBean
+	private EmailService emailService;
+
+	private Long id;
+	private Path userFolder;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		User user = new User("Reaped User", USERNAME, "reaped@mail.com");
+		user.setRole(Role.ROLE_USER.name());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user = userRepository.save(user);
+		userSearchService.index(user);
+		id = user.getId();
+		userFolder = Paths.get(USER_FOLDER + USERNAME).toAbsolutePath().normalize();
+		Files.createDirectories(userFolder);
+		Files.write(userFolder.resolve(USERNAME + ".jpg"), new byte[] { 1, 2, 3 });
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		jdbcTemplate.update("delete from user");
+		userCacheService.evictAll();
+		FileUtils.deleteDirectory(userFolder.toFile());
+	}
+
+	@Test
+	@WithMockUser(authorities = { "user:update", "user:delete" })
+	@DisplayName("Delete hides the user at once but keeps the row, folder and username")
+	public void canTombstoneUser() throws Exception {
+		// given
+		assertThat(userService.findByUsername(USERNAME)).isNotNull();
+		// when
+		mockMvc.perform(delete("/api/users/delete/" + id)).andExpect(status().isOk());
+		// then
+		assertThat(userService.findByUsername(USERNAME)).isNull();
+		assertThat(userRepository.findById(id)).isEmpty();
+		assertThat(userService.getAll()).isEmpty();
+		assertThat(userSearchService.search(USERNAME, 10)).isEmpty();
+		assertThat(tombstoneCount()).isEqualTo(1);
+		assertThat(Files.exists(userFolder)).isTrue();
+		assertThatThrownBy(() -> userService.register("Other", USERNAME, "other@mail.com")).isInstanceOf(UsernameExistException.class);
+		assertThatThrownBy(() -> userService.delete(id)).isInstanceOf(UserNotFoundException.class);
+	}
+
+	@Test
+	@DisplayName("Reaper waits for the grace period, then removes the folder and the row")
+	public void canReapAfterGracePeriod() throws Exception {
+		// given
+		userService.delete(id);
+		// when
+		int reapedEarly = userReaperService.reap();
+		jdbcTemplate.update("update user set deleted_at = dateadd('HOUR', -2, deleted_at) where id = ?", id);
+		int reaped = userReaperService.reap();
+		// then
+		assertThat(reapedEarly).isZero();
+		assertThat(reaped).isEqualTo(1);
+		assertThat(tombstoneCount()).isZero();
+		assertThat(Files.exists(userFolder)).isFalse();
+	}
+
+	private int tombstoneCount() {
+		return jdbcTemplate.queryForObject("select count(*) from user where deleted_at is not null", Integer.class);
+	}
+}
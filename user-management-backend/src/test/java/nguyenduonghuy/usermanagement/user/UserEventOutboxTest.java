@@ -0,0 +1,161 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+import nguyenduonghuy.usermanagement.enumeration.UserEventType;
+import nguyenduonghuy.usermanagement.repository.UserEventRepository;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserEventRelay;
+import nguyenduonghuy.usermanagement.service.UserEventSubscriber;
+import nguyenduonghuy.usermanagement.service.UserService;
+import nguyenduonghuy.usermanagement.service.impl.JdbcUserEventTransport;
+
+@SpringBootTest
+public class UserEventOutboxTest {
+
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserEventRepository userEventRepository;
+	@Autowired
+	private UserEventRelay userEventRelay;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private RecordingSubscriber recordingSubscriber;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@MockBean
+	private EmailService emailService;
+
+	@AfterEach
+	public void tearDown() {
+		jdbcTemplate.update("delete from user");
+		userEventRepository.deleteAll();
+		userCacheService.evictAll();
+		recordingSubscriber.events.clear();
+	}
+
+	@Test
+	@DisplayName("Writes append events that the relay publishes once, in order")
+	public void canRelayEvents() throws Exception {
+		// given
+		User user = userService.register("Outbox User", "outbox", "outbox@mail.com");
+		userService.update(user.getId(), null, "Outbox User 2", "outbox2", "outbox2@mail.com", "ROLE_HR", true, true, null);
+		userService.resetPassword("outbox2@mail.com");
+		userService.delete(user.getId());
+		// when
+		int relayed = userEventRelay.relay();
+		int relayedAgain = userEventRelay.relay();
+		// then
+		assertThat(relayed).isEqualTo(4);
+		assertThat(relayedAgain).isZero();
+		assertThat(recordingSubscriber.events)
+			.extracting(UserEvent::getUserId, UserEvent::getType, UserEvent::getUsername)
+			.containsExactly(
+					tuple(user.getId(), UserEventType.CREATED, "outbox"),
+					tuple(user.getId(), UserEventType.UPDATED, "outbox2"),
+					tuple(user.getId(), UserEventType.PASSWORD_RESET, "outbox2"),
+					tuple(user.getId(), UserEventType.DELETED, "outbox2"));
+		assertThat(userEventRepository.findAll()).allMatch(event -> event.getRelayedAt() != null);
+	}
+
+	@Test
+	@DisplayName("A rolled back write leaves no event behind")
+	public void cannotAppendEventsOnRollback() throws Exception {
+		// given
+		User user = userService.register("Outbox User", "outbox", "outbox@mail.com");
+		userEventRelay.relay();
+		recordingSubscriber.events.clear();
+		// when
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			try {
+				userService.delete(user.getId());
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			status.setRollbackOnly();
+		});
+		// then
+		assertThat(userEventRelay.relay()).isZero();
+		assertThat(recordingSubscriber.events).isEmpty();
+		assertThat(userRepository.findById(user.getId())).isPresent();
+	}
+
+	@Test
+	@DisplayName("Relayed events evict users cached on other nodes")
+	public void canEvictCachedUserOnEvent() throws Exception {
+		// given
+		User user = userService.register("Outbox User", "outbox", "outbox@mail.com");
+		userService.findByUsername("outbox");
+		jdbcTemplate.update("update user set fullname = ? where id = ?", "Changed Elsewhere", user.getId());
+		assertThat(userService.findByUsername("outbox").getFullname()).isEqualTo("Outbox User");
+		UserEvent event = new UserEvent(null, user.getId(), UserEventType.UPDATED, "outbox", "outbox@mail.com", null, null);
+		// when
+		userCacheService.onUserEvents(List.of(event));
+		// then
+		assertThat(userService.findByUsername("outbox").getFullname()).isEqualTo("Changed Elsewhere");
+	}
+
+	@Test
+	@DisplayName("JDBC transport delivers each relayed event once per node")
+	public void canPollRelayedEvents() throws Exception {
+		// given
+		RecordingSubscriber otherNode = new RecordingSubscriber();
+		JdbcUserEventTransport transport = new JdbcUserEventTransport(userEventRepository, List.of(otherNode), 2, 10_000);
+		User user = userService.register("Outbox User", "outbox", "outbox@mail.com");
+		userService.resetPassword("outbox@mail.com");
+		userService.delete(user.getId());
+		userEventRelay.relay();
+		// when
+		int polled = transport.poll();
+		int polledAgain = transport.poll();
+		// then
+		assertThat(polled).isEqualTo(3);
+		assertThat(polledAgain).isZero();
+		assertThat(otherNode.events).extracting(UserEvent::getType)
+			.containsExactly(UserEventType.CREATED, UserEventType.PASSWORD_RESET, UserEventType.DELETED);
+	}
+
+	@TestConfiguration
+	static class RecordingSubscriberConfiguration {
+
+		@Bean
+		public RecordingSubscriber recordingSubscriber() {
+			return new RecordingSubscriber();
+		}
+	}
+
+	static class RecordingSubscriber implements UserEventSubscriber {
+		private final List<UserEvent> events = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onUserEvents(List<UserEvent> events) {
+			this.events.addAll(events);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USER_EXPORT_TIMEOUT_MS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.enumeration.ExportFormat;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserExportService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserExportTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserExportService underTest;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserCacheService userCacheService;
+
+	@BeforeEach
+	public void setUp() {
+		for (int i = 0; i < 3; i++) {
+			User user = new User("Export, \"User\" " + i, "export" + i, "export" + i + "@mail.com");
+			user.setPassword("secret-hash");
+			userRepository.save(user);
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		userRepository.deleteAll();
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@DisplayName("NDJSON export writes one object per user without the password")
+	public void canExportNdjson() throws IOException {
+		// given
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		// when
+		underTest.export(ExportFormat.NDJSON, outputStream);
+		// then
+		String[] lines = outputStream.toString("UTF-8").split("\n");
+		assertThat(lines).hasSize(3);
+		JsonNode first = new ObjectMapper().readTree(lines[0]);
+		assertThat(first.get("username").asText()).isEqualTo("export0");
+		assertThat(first.has("password")).isFalse();
+	}
+
+	@Test
+	@DisplayName("CSV export writes a header and escapes values")
+	public void canExportCsv() throws IOException {
+		// given
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		// when
+		underTest.export(ExportFormat.CSV, outputStream);
+		// then
+		String[] lines = outputStream.toString("UTF-8").split("\r\n");
+		assertThat(lines).hasSize(4);
+		assertThat(lines[0]).startsWith("id,userId,fullname,username,email");
+		assertThat(lines[1]).contains(",\"Export, \"\"User\"\" 0\",export0,export0@mail.com,");
+		assertThat(outputStream.toString("UTF-8")).doesNotContain("secret-hash");
+	}
+
+	@Test
+	@WithMockUser
+	@DisplayName("Export endpoint streams the response asynchronously")
+	public void canStreamExport() throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/users/export").param("format", "csv"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(USER_EXPORT_TIMEOUT_MS);
+		mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(content().contentTypeCompatibleWith("text/csv"))
+			.andExpect(content().string(containsString("export2@mail.com")));
+		mockMvc.perform(get("/api/users/export").param("format", "xml"))
+			.andExpect(status().isBadRequest());
+	}
+}
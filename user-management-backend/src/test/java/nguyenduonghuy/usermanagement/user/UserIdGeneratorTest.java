@@ -0,0 +1,111 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USER_ID_NODE_UNSET;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import nguyenduonghuy.usermanagement.service.impl.SnowflakeUserIdGenerator;
+
+public class UserIdGeneratorTest {
+
+	private AtomicLong clock;
+	private SnowflakeUserIdGenerator underTest;
+
+	@BeforeEach
+	public void setUp() {
+		clock = new AtomicLong(SnowflakeUserIdGenerator.EPOCH_MILLIS + 1_000);
+		underTest = new SnowflakeUserIdGenerator(5, clock::get);
+	}
+
+	@Test
+	@DisplayName("Ids are 19 digits and sort in generation order")
+	public void canGenerateSortableIds() {
+		// when
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			ids.add(underTest.nextId());
+			if (i % 1_000 == 0) {
+				clock.incrementAndGet();
+			}
+		}
+		// then
+		List<String> sorted = new ArrayList<>(ids);
+		Collections.sort(sorted);
+		assertThat(ids).allMatch(id -> id.length() == 19 && id.chars().allMatch(Character::isDigit));
+		assertThat(ids).isEqualTo(sorted);
+		assertThat(ids).doesNotHaveDuplicates();
+	}
+
+	@Test
+	@DisplayName("Node id is embedded so nodes never collide")
+	public void canEmbedNodeId() {
+		// given
+		SnowflakeUserIdGenerator otherNode = new SnowflakeUserIdGenerator(6, clock::get);
+		// when
+		long id = underTest.nextLong();
+		long otherId = otherNode.nextLong();
+		// then
+		assertThat((id >>> 12) & 1023).isEqualTo(5);
+		assertThat((otherId >>> 12) & 1023).isEqualTo(6);
+		assertThat(id >>> 22).isEqualTo(otherId >>> 22).isEqualTo(1_000);
+		assertThatThrownBy(() -> new SnowflakeUserIdGenerator(1024, clock::get)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("A node without a node id refuses to start instead of guessing one")
+	public void cannotStartWithoutNodeId() {
+		assertThatThrownBy(() -> new SnowflakeUserIdGenerator(USER_ID_NODE_UNSET))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("user.id.node-id");
+	}
+
+	@Test
+	@DisplayName("Ids keep increasing when the clock steps back or the sequence overflows")
+	public void canStayMonotonic() {
+		// given
+		long previous = underTest.nextLong();
+		// when
+		clock.addAndGet(-500);
+		for (int i = 0; i < 5_000; i++) {
+			long next = underTest.nextLong();
+			// then
+			assertThat(next).isGreaterThan(previous);
+			previous = next;
+		}
+	}
+
+	@Test
+	@DisplayName("Concurrent callers never get the same id")
+	public void canGenerateConcurrently() throws InterruptedException {
+		// given
+		SnowflakeUserIdGenerator generator = new SnowflakeUserIdGenerator(5);
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		// when
+		for (int i = 0; i < 8; i++) {
+			executor.execute(() -> {
+				for (int j = 0; j < 10_000; j++) {
+					ids.add(generator.nextId());
+				}
+			});
+		}
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		// then
+		assertThat(ids).hasSize(80_000);
+	}
+}
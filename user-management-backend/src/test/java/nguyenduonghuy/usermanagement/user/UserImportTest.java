@@ -0,0 +1,171 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserImportReport;
+import nguyenduonghuy.usermanagement.domain.UserImportResult;
+import nguyenduonghuy.usermanagement.enumeration.ExportFormat;
+import nguyenduonghuy.usermanagement.enumeration.ImportStatus;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserImportService;
+import nguyenduonghuy.usermanagement.service.UserSearchService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserImportTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserImportService underTest;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private UserSearchService userSearchService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@MockBean
+	private EmailService emailService;
+
+	@BeforeEach
+	public void setUp() {
+		userRepository.save(new User("existing", "existing", "existing@mail.com"));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		jdbcTemplate.update("delete from user");
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@WithMockUser(authorities = "user:create")
+	@DisplayName("CSV import reports every row and creates only the valid, unique ones")
+	public void canImportCsv() throws Exception {
+		// given
+		String csv = "id,fullname,username,email,role,isActive,isNotLocked\r\n"
+				+ ",\"Import, \"\"One\"\"\",import1,import1@mail.com,role_admin,true,false\r\n"
+				+ ",Two,EXISTING,two@mail.com,,,\r\n"
+				+ ",Three,import3,IMPORT1@mail.com,,,\r\n"
+				+ ",Four,import4,not-an-email,,,\r\n"
+				+ "\r\n"
+				+ ",Five,import5,import5@mail.com,ROLE_UNKNOWN,,\r\n";
+		// when
+		mockMvc.perform(post("/api/users/import").contentType("text/csv").content(csv))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.total").value(5))
+			.andExpect(jsonPath("$.created").value(1))
+			.andExpect(jsonPath("$.failed").value(4))
+			.andExpect(jsonPath("$.results[0].status").value(ImportStatus.CREATED.name()))
+			.andExpect(jsonPath("$.results[0].id").isNumber())
+			.andExpect(jsonPath("$.results[1].status").value(ImportStatus.DUPLICATE_USERNAME.name()))
+			.andExpect(jsonPath("$.results[2].status").value(ImportStatus.DUPLICATE_EMAIL.name()))
+			.andExpect(jsonPath("$.results[3].status").value(ImportStatus.INVALID.name()))
+			.andExpect(jsonPath("$.results[4].status").value(ImportStatus.INVALID.name()));
+		// then
+		User imported = userRepository.findByUsername("import1");
+		assertThat(imported.getFullname()).isEqualTo("Import, \"One\"");
+		assertThat(imported.getRole()).isEqualTo(Role.ROLE_ADMIN.name());
+		assertThat(imported.isActive()).isTrue();
+		assertThat(imported.isNotLocked()).isFalse();
+		assertThat(imported.getPassword()).startsWith("$2");
+		verify(emailService, timeout(5_000)).sendNewPasswordToEmail(eq("Import, \"One\""), anyString(), eq("import1@mail.com"));
+	}
+
+	@Test
+	@DisplayName("JSON import checks uniqueness set-wise and inserts in batches")
+	public void canImportJsonInBatches() throws Exception {
+		// given
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < 60; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"fullname\":\"Bulk ").append(i).append("\",\"username\":\"bulk").append(i)
+				.append("\",\"email\":\"bulk").append(i).append("@mail.com\",\"active\":true}");
+		}
+		json.append("]");
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		// when
+		UserImportReport report = underTest.importUsers(ExportFormat.NDJSON,
+				new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)));
+		// then
+		assertThat(report.getCreated()).isEqualTo(60);
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(60);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+		assertThat(userRepository.count()).isEqualTo(61);
+		User user = userRepository.findByUsername("bulk42");
+		assertThat(passwordEncoder.upgradeEncoding(user.getPassword())).isFalse();
+	}
+
+	@Test
+	@WithMockUser(authorities = "user:create")
+	@DisplayName("NDJSON import accepts one object per line")
+	public void canImportNdjson() throws Exception {
+		// given
+		String ndjson = "{\"fullname\":\"Nd One\",\"username\":\"nd1\",\"email\":\"nd1@mail.com\"}\n"
+				+ "{\"fullname\":\"Nd Two\",\"username\":\"nd2\",\"email\":\"nd2@mail.com\",\"role\":\"ROLE_HR\"}\n";
+		// when & then
+		mockMvc.perform(post("/api/users/import").contentType("application/x-ndjson").content(ndjson))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.created").value(2));
+		assertThat(userRepository.findByUsername("nd2").getRole()).isEqualTo(Role.ROLE_HR.name());
+		assertThat(ExportFormat.fromContentType("text/csv;charset=UTF-8")).isEqualTo(ExportFormat.CSV);
+	}
+
+	@Test
+	@DisplayName("Rows retried after a failed batch are still created with their ids")
+	public void canRetryRowsAfterFailedBatch() throws Exception {
+		// given
+		User deleted = userRepository.save(new User("Ghost", "ghost", "ghost@mail.com"));
+		jdbcTemplate.update("update user set deleted_at = current_timestamp where id = ?", deleted.getId());
+		String ndjson = "{\"fullname\":\"Ghost Again\",\"username\":\"ghost\",\"email\":\"ghost2@mail.com\"}\n"
+				+ "{\"fullname\":\"Retry User\",\"username\":\"retry1\",\"email\":\"retry1@mail.com\"}\n";
+		// when
+		UserImportReport report = underTest.importUsers(ExportFormat.NDJSON,
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+		// then
+		assertThat(report.getResults()).extracting(UserImportResult::getStatus)
+			.containsExactly(ImportStatus.DUPLICATE_USERNAME, ImportStatus.CREATED);
+		Long id = report.getResults().get(1).getId();
+		assertThat(id).isNotNull();
+		assertThat(userRepository.findByUsername("retry1").getId()).isEqualTo(id);
+		assertThat(userSearchService.search("retry", null)).extracting(user -> user.getId()).containsExactly(id);
+	}
+}
@@ -0,0 +1,146 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USER_PAGE_MAX_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserPage;
+import nguyenduonghuy.usermanagement.exception.InvalidPageRequestException;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserPaginationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private List<User> users = new ArrayList<>();
+
+	@BeforeEach
+	public void setUp() {
+		for (int i = 0; i < 25; i++) {
+			users.add(userRepository.save(new User("page" + i, "page" + i, "page" + i + "@mail.com")));
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		userRepository.deleteAll();
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@DisplayName("Walking every page by id returns each user once and in order")
+	public void canWalkPagesById() {
+		// when
+		List<Long> ids = walk("id_asc", 10);
+		// then
+		assertThat(ids).containsExactlyElementsOf(users.stream().map(User::getId).sorted().collect(Collectors.toList()));
+	}
+
+	@Test
+	@DisplayName("Walking every page by join date breaks ties on id")
+	public void canWalkPagesByJoinDate() {
+		// when
+		List<Long> ids = walk("join_date_desc", 7);
+		// then
+		assertThat(ids).containsExactlyElementsOf(users.stream()
+				.sorted(Comparator.comparing(User::getJoinDate).thenComparing(User::getId).reversed())
+				.map(User::getId).collect(Collectors.toList()));
+	}
+
+	@Test
+	@DisplayName("A deep page costs one query like the first page")
+	public void canFetchDeepPageWithSingleQuery() {
+		// given
+		UserPage page = userService.getPage(null, 20, "id_asc");
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		// when
+		UserPage next = userService.getPage(page.getNextCursor(), 20, "id_asc");
+		// then
+		assertThat(next.getUsers()).hasSize(5);
+		assertThat(next.getNextCursor()).isNull();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("Page size is capped")
+	public void canCapPageSize() {
+		// given
+		for (int i = 25; i <= USER_PAGE_MAX_SIZE; i++) {
+			userRepository.save(new User("page" + i, "page" + i, "page" + i + "@mail.com"));
+		}
+		// when
+		UserPage page = userService.getPage(null, USER_PAGE_MAX_SIZE * 10, "id_asc");
+		// then
+		assertThat(page.getUsers()).hasSize(USER_PAGE_MAX_SIZE);
+		assertThat(page.getNextCursor()).isNotNull();
+	}
+
+	@Test
+	@DisplayName("Cannot use a forged cursor")
+	public void cannotUseInvalidCursor() {
+		// when & then
+		assertThatThrownBy(() -> userService.getPage("not-a-cursor", 10, "id_asc"))
+			.isInstanceOf(InvalidPageRequestException.class);
+	}
+
+	@Test
+	@WithMockUser
+	@DisplayName("Listing endpoint returns a page and a cursor")
+	public void canListUsersPage() throws Exception {
+		mockMvc.perform(get("/api/users").param("size", "10"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.users.length()").value(10))
+			.andExpect(jsonPath("$.nextCursor").isNotEmpty());
+		mockMvc.perform(get("/api/users").param("sort", "unknown"))
+			.andExpect(status().isBadRequest());
+	}
+
+	private List<Long> walk(String sort, int size) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			UserPage page = userService.getPage(cursor, size, sort);
+			assertThat(page.getUsers().size()).isLessThanOrEqualTo(size);
+			page.getUsers().forEach(user -> ids.add(user.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+}
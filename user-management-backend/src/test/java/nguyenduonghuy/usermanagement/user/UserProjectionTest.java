@@ -0,0 +1,84 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+public class UserProjectionTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	public void setUp() {
+		User user = new User("test01", "test01", "test01@mail.com");
+		user.setPassword("secret-hash");
+		user.setRole(Role.ROLE_USER.name());
+		user.setActive(true);
+		userRepository.save(user);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		userRepository.deleteAll();
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@DisplayName("Listing returns summaries without hydrating entities")
+	public void canListSummaries() throws Exception {
+		// given
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		// when
+		mockMvc.perform(get("/api/users"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.users[0].username").value("test01"))
+			.andExpect(jsonPath("$.users[0].active").value(true))
+			.andExpect(jsonPath("$.users[0].password").doesNotExist())
+			.andExpect(jsonPath("$.users[0].authorities").doesNotExist());
+		// then
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("Detail view omits the password hash and authorities")
+	public void canFindDetail() throws Exception {
+		mockMvc.perform(get("/api/users/find/test01"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.email").value("test01@mail.com"))
+			.andExpect(jsonPath("$.password").doesNotExist())
+			.andExpect(jsonPath("$.authorities").doesNotExist());
+		mockMvc.perform(get("/api/users/find/unknown"))
+			.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,112 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserEvent;
+import nguyenduonghuy.usermanagement.enumeration.UserEventType;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserSearchService;
+import nguyenduonghuy.usermanagement.service.UserService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+public class UserSearchTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private UserSearchService userSearchService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User user;
+
+	@BeforeEach
+	public void setUp() {
+		user = userRepository.save(new User("Nguyen Duong Huy", "huynguyen", "huy@mail.com"));
+		userSearchService.index(user);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		userSearchService.remove(user.getId());
+		jdbcTemplate.update("delete from user");
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@DisplayName("Search endpoint returns ranked summaries")
+	public void canSearchUsers() throws Exception {
+		mockMvc.perform(get("/api/users/search").param("q", "duong"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].username").value("huynguyen"));
+		mockMvc.perform(get("/api/users/search").param("q", "hu"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("Updating a user reindexes it after commit")
+	public void canReindexOnUpdate() throws Exception {
+		// when
+		userService.update(user.getId(), null, "Tran Van An", "tranvan", "tran@mail.com", "ROLE_USER", true, true, null);
+		// then
+		mockMvc.perform(get("/api/users/search").param("q", "duong"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(0));
+		mockMvc.perform(get("/api/users/search").param("q", "tranvan"))
+			.andExpect(jsonPath("$[0].fullname").value("Tran Van An"));
+	}
+
+	@Test
+	@DisplayName("Relayed events reindex users changed on other nodes")
+	public void canReindexOnEvent() throws Exception {
+		// given
+		jdbcTemplate.update("update user set fullname = ? where id = ?", "Tran Van An", user.getId());
+		UserEvent updated = new UserEvent(null, user.getId(), UserEventType.UPDATED, null, null, null, null);
+		// when
+		userSearchService.onUserEvents(List.of(updated));
+		// then
+		mockMvc.perform(get("/api/users/search").param("q", "tran van"))
+			.andExpect(jsonPath("$[0].username").value("huynguyen"));
+		mockMvc.perform(get("/api/users/search").param("q", "duong"))
+			.andExpect(jsonPath("$.length()").value(0));
+	}
+
+	@Test
+	@DisplayName("Relayed events drop users deleted on other nodes")
+	public void canRemoveOnEvent() throws Exception {
+		// given
+		int indexed = userSearchService.size();
+		jdbcTemplate.update("update user set deleted_at = current_timestamp where id = ?", user.getId());
+		UserEvent deleted = new UserEvent(null, user.getId(), UserEventType.DELETED, null, null, null, null);
+		// when
+		userSearchService.onUserEvents(List.of(deleted, deleted));
+		// then
+		assertThat(userSearchService.size()).isEqualTo(indexed - 1);
+	}
+}
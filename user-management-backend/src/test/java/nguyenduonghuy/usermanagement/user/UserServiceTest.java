@@ -3,12 +3,15 @@ package nguyenduonghuy.usermanagement.user;
 import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.EMAIL_ALREADY_EXISTS;
 import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.NO_USER_FOUND_BY_ID;
 import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USERNAME_ALREADY_EXISTS;
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USER_VERSION_MISMATCH;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
 
 import javax.mail.MessagingException;
 
@@ -22,18 +25,28 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.multipart.MultipartFile;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserKey;
 import nguyenduonghuy.usermanagement.exception.EmailExistException;
 import nguyenduonghuy.usermanagement.exception.NotAnImageFileException;
 import nguyenduonghuy.usermanagement.exception.UserNotFoundException;
+import nguyenduonghuy.usermanagement.exception.UserVersionMismatchException;
 import nguyenduonghuy.usermanagement.exception.UsernameExistException;
 import nguyenduonghuy.usermanagement.repository.UserRepository;
 import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.LastLoginUpdateService;
 import nguyenduonghuy.usermanagement.service.LoginAttemptService;
+import nguyenduonghuy.usermanagement.service.TokenRevocationService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserEventOutbox;
+import nguyenduonghuy.usermanagement.service.UserSearchService;
 import nguyenduonghuy.usermanagement.service.UserService;
+import nguyenduonghuy.usermanagement.service.impl.SnowflakeUserIdGenerator;
 import nguyenduonghuy.usermanagement.service.impl.UserServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +60,14 @@ public class UserServiceTest {
 	private EmailService emailService;
 	@Mock
 	private BCryptPasswordEncoder passwordEncoder;
+	@Mock
+	private LastLoginUpdateService lastLoginUpdateService;
+	@Mock
+	private UserSearchService userSearchService;
+	@Mock
+	private UserEventOutbox userEventOutbox;
+	@Mock
+	private TokenRevocationService tokenRevocationService;
 	
 	private UserService underTest;
 	
@@ -61,7 +82,8 @@ public class UserServiceTest {
 	
 	@BeforeEach
 	public void setUp() {
-		underTest = new UserServiceImpl(userRepository, loginAttemptService, emailService,  passwordEncoder);
+		underTest = new UserServiceImpl(userRepository, loginAttemptService, emailService,  passwordEncoder, lastLoginUpdateService,
+				new UserCacheService(new SimpleMeterRegistry(), 100, 60), userSearchService, new SnowflakeUserIdGenerator(1), userEventOutbox, tokenRevocationService, new SimpleMeterRegistry());
 		id = 1L;
 		fullname = "test123";
 		username = "test123";
@@ -103,14 +125,13 @@ public class UserServiceTest {
 	@DisplayName("Can register User")
 	public void canRegisterUser() throws UserNotFoundException, UsernameExistException, EmailExistException, MessagingException {
 		//given
-		BDDMockito.given(userRepository.findByUsername(username)).willReturn(null);
-		BDDMockito.given(userRepository.findByEmail(email)).willReturn(null);
+		BDDMockito.given(userRepository.findKeysByUsernameKeyOrEmailKey(username, email)).willReturn(Collections.emptyList());
 		// when
 		User newUser = underTest.register(fullname, username, email);
 		// then
 		ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
 		
-		verify(userRepository).save(userArgumentCaptor.capture());
+		verify(userRepository).saveAndFlush(userArgumentCaptor.capture());
 		assertThat(newUser).isEqualTo(userArgumentCaptor.getValue());
 	}
 	
@@ -119,13 +140,14 @@ public class UserServiceTest {
 	public void cannotRegisterUsername() {
 		// given
 		User user = new User(fullname, username, email);
-		BDDMockito.given(userRepository.findByUsername(user.getUsername())).willReturn(user);
+		BDDMockito.given(userRepository.findKeysByUsernameKeyOrEmailKey(username, email))
+			.willReturn(Collections.singletonList(new UserKey(2L, username, "other@mail.com")));
 		// when & then
 		assertThatThrownBy(() -> underTest.register(user.getFullname(), user.getUsername(), user.getEmail()))
 			.isInstanceOf(UsernameExistException.class)
 			.hasMessage(USERNAME_ALREADY_EXISTS);
 		
-		verify(userRepository, never()).save(ArgumentMatchers.any());
+		verify(userRepository, never()).saveAndFlush(ArgumentMatchers.any());
 	}
 	
 	@Test
@@ -133,27 +155,52 @@ public class UserServiceTest {
 	public void cannotRegisterEmail() {
 		// given
 		User user = new User(fullname, username, email);
-		BDDMockito.given(userRepository.findByEmail(user.getEmail())).willReturn(user);
+		BDDMockito.given(userRepository.findKeysByUsernameKeyOrEmailKey(username, email))
+			.willReturn(Collections.singletonList(new UserKey(2L, "other", email)));
 		// when & then
 		assertThatThrownBy(() -> underTest.register(user.getFullname(), user.getUsername(), user.getEmail()))
 			.isInstanceOf(EmailExistException.class)
 			.hasMessage(EMAIL_ALREADY_EXISTS);
 		
-		verify(userRepository, never()).save(ArgumentMatchers.any());
+		verify(userRepository, never()).saveAndFlush(ArgumentMatchers.any());
+	}
+	
+	@Test
+	@DisplayName("Cannot register User whose username differs only by case")
+	public void cannotRegisterUsernameCaseVariant() {
+		// given
+		BDDMockito.given(userRepository.findKeysByUsernameKeyOrEmailKey(username, email))
+			.willReturn(Collections.singletonList(new UserKey(2L, username, email)));
+		// when & then
+		assertThatThrownBy(() -> underTest.register(fullname, " TEST123 ", "Test123@Mail.com"))
+			.isInstanceOf(UsernameExistException.class)
+			.hasMessage(USERNAME_ALREADY_EXISTS);
+	}
+	
+	@Test
+	@DisplayName("Cannot register User when a concurrent insert takes the email")
+	public void cannotRegisterEmailRace() {
+		// given
+		BDDMockito.given(userRepository.saveAndFlush(ArgumentMatchers.any()))
+			.willThrow(new DataIntegrityViolationException("Duplicate entry 'test123@mail.com' for key 'user.uk_user_email_key'"));
+		// when & then
+		assertThatThrownBy(() -> underTest.register(fullname, username, email))
+			.isInstanceOf(EmailExistException.class)
+			.hasMessage(EMAIL_ALREADY_EXISTS);
+		verify(userSearchService, never()).index(ArgumentMatchers.any());
 	}
 	
 	@Test
 	@DisplayName("Can add new User")
 	public void canAddNewUser() throws UserNotFoundException, UsernameExistException, EmailExistException, NotAnImageFileException, IOException, MessagingException {		
 		// given
-		BDDMockito.given(userRepository.findByUsername(username)).willReturn(null);
-		BDDMockito.given(userRepository.findByEmail(email)).willReturn(null);
+		BDDMockito.given(userRepository.findKeysByUsernameKeyOrEmailKey(username, email)).willReturn(Collections.emptyList());
 		// when
 		User newUser = underTest.addNew(fullname, username, email, role, isNotLocked, isActive, avatar);
 		// then
 		ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
 		
-		verify(userRepository).save(userArgumentCaptor.capture());
+		verify(userRepository).saveAndFlush(userArgumentCaptor.capture());
 		assertThat(newUser).isEqualTo(userArgumentCaptor.getValue());
 	}
 	
@@ -164,11 +211,11 @@ public class UserServiceTest {
 		// given
 		BDDMockito.given(userRepository.existsById(id)).willReturn(true);
 		// when
-		User updateUser = underTest.update(id, fullname, username, email, role, isNotLocked, isActive, avatar);
+		User updateUser = underTest.update(id, null, fullname, username, email, role, isNotLocked, isActive, avatar);
 		// then
 		ArgumentCaptor<User> userArgumentCaptor = ArgumentCaptor.forClass(User.class);
 		
-		verify(userRepository).save(userArgumentCaptor.capture());
+		verify(userRepository).saveAndFlush(userArgumentCaptor.capture());
 		assertThat(updateUser).isEqualTo(userArgumentCaptor.getValue());
 	}
 	
@@ -176,21 +223,37 @@ public class UserServiceTest {
 	@DisplayName("Cannot update User")
 	public void cannotUpdateUser() throws UserNotFoundException, UsernameExistException, EmailExistException, NotAnImageFileException, IOException {		
 		// when & then
-		assertThatThrownBy(() -> underTest.update(id, fullname, username, email, role, isNotLocked, isActive, avatar))
+		assertThatThrownBy(() -> underTest.update(id, null, fullname, username, email, role, isNotLocked, isActive, avatar))
 			.isInstanceOf(UserNotFoundException.class)
 			.hasMessage(NO_USER_FOUND_BY_ID);
 	
-		verify(userRepository, never()).save(ArgumentMatchers.any());
+		verify(userRepository, never()).saveAndFlush(ArgumentMatchers.any());
+	}
+	
+	@Test
+	@DisplayName("Cannot update User read at an older version")
+	public void cannotUpdateStaleUser() {
+		// given
+		User existing = new User(fullname, username, email);
+		existing.setVersion(3L);
+		BDDMockito.given(userRepository.findById(id)).willReturn(Optional.of(existing));
+		// when & then
+		assertThatThrownBy(() -> underTest.update(id, 2L, fullname, username, email, role, isNotLocked, isActive, avatar))
+			.isInstanceOf(UserVersionMismatchException.class)
+			.hasMessage(USER_VERSION_MISMATCH);
+		verify(userRepository, never()).saveAndFlush(ArgumentMatchers.any());
 	}
 	
 	@Test
 	@DisplayName("Can delete User")
-	public void canDeleteUser() throws IOException {
+	public void canDeleteUser() throws UserNotFoundException {
 		// given
-		BDDMockito.given(userRepository.getById(id)).willReturn(new User(fullname, username, email));
+		BDDMockito.given(userRepository.findById(id)).willReturn(Optional.of(new User(fullname, username, email)));
 		// when
 		underTest.delete(id);
 		// then 
-		verify(userRepository).deleteById(id);
+		verify(userRepository).tombstoneByIdIn(ArgumentMatchers.eq(Collections.singletonList(id)), ArgumentMatchers.any());
+		verify(userRepository, never()).deleteById(id);
+		verify(userSearchService).remove(id);
 	}
 }
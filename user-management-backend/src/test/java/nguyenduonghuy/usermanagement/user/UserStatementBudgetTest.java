@@ -0,0 +1,168 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.JWT_TOKEN_HEADER;
+import static nguyenduonghuy.usermanagement.constant.SecurityConstant.TOKEN_PREFIX;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserSearchService;
+import nguyenduonghuy.usermanagement.support.SqlStatementCounter;
+
+/**
+ * Exact statement budgets for every {@code UserController} endpoint that touches the database.
+ * A failing budget lists the statements that were actually sent; if a change adds a query on
+ * purpose, raise the budget in the same commit. The export streams on the async executor and the
+ * avatar endpoints only touch the file system, so they have no budget here.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlStatementCounter.class)
+@WithMockUser(authorities = { "user:create", "user:update", "user:delete" })
+public class UserStatementBudgetTest {
+
+	private static final String UPDATE_BODY = "{\"fullname\":\"Budget Renamed\",\"username\":\"budget\",\"email\":\"budget@mail.com\","
+			+ "\"role\":\"ROLE_USER\",\"isActive\":true,\"isNotLocked\":true}";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private SqlStatementCounter sqlStatementCounter;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private UserSearchService userSearchService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@MockBean
+	private EmailService emailService;
+
+	private User user;
+
+	@BeforeEach
+	public void setUp() {
+		user = new User("Budget User", "budget", "budget@mail.com");
+		user.setPassword(passwordEncoder.encode("password"));
+		user.setRole(Role.ROLE_USER.name());
+		user.setActive(true);
+		user.setNotLocked(true);
+		user = userRepository.save(user);
+		userSearchService.index(user);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		jdbcTemplate.update("delete from user");
+		jdbcTemplate.update("delete from user_event");
+		jdbcTemplate.update("delete from revoked_token");
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@DisplayName("Login reads the user once and defers every write")
+	public void loginBudget() throws Exception {
+		sqlStatementCounter.count(() -> login().andExpect(status().isOk()))
+			.hasSelects(1).hasTotal(1);
+		sqlStatementCounter.count(() -> login().andExpect(status().isOk()))
+			.hasTotal(0);
+	}
+
+	@Test
+	@DisplayName("Register and add check both unique keys in one query")
+	public void createBudget() throws Exception {
+		sqlStatementCounter.count(() -> mockMvc.perform(post("/api/users/register").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"fullname\":\"Budget New\",\"username\":\"budget-new\",\"email\":\"budget-new@mail.com\"}"))
+				.andExpect(status().isCreated()))
+			.hasSelects(1).hasInserts(2).hasTotal(3);
+		sqlStatementCounter.count(() -> mockMvc.perform(post("/api/users/add").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"fullname\":\"Budget Add\",\"username\":\"budget-add\",\"email\":\"budget-add@mail.com\",\"role\":\"ROLE_USER\"}"))
+				.andExpect(status().isCreated()))
+			.hasSelects(1).hasInserts(2).hasTotal(3);
+	}
+
+	@Test
+	@DisplayName("Reads are a single query each")
+	public void readBudget() throws Exception {
+		sqlStatementCounter.count(() -> mockMvc.perform(get("/api/users")).andExpect(status().isOk()))
+			.hasSelects(1).hasTotal(1);
+		sqlStatementCounter.count(() -> mockMvc.perform(get("/api/users/find/budget")).andExpect(status().isOk()))
+			.hasSelects(1).hasTotal(1);
+		String etag = "\"" + user.getId() + ".0\"";
+		sqlStatementCounter.count(() -> mockMvc.perform(get("/api/users/find/budget").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified()))
+			.hasSelects(1).hasTotal(1);
+		sqlStatementCounter.count(() -> mockMvc.perform(get("/api/users/search").param("q", "budget")).andExpect(status().isOk()))
+			.hasSelects(1).hasTotal(1);
+	}
+
+	@Test
+	@DisplayName("Update, delete and password reset touch the row once")
+	public void writeBudget() throws Exception {
+		sqlStatementCounter.count(() -> mockMvc.perform(put("/api/users/update/" + user.getId()).contentType(MediaType.APPLICATION_JSON)
+				.content(UPDATE_BODY)).andExpect(status().isCreated()))
+			.hasSelects(1).hasUpdates(1).hasTotal(3);
+		sqlStatementCounter.count(() -> mockMvc.perform(get("/api/users/reset-password/budget@mail.com")).andExpect(status().isOk()))
+			.hasSelects(1).hasUpdates(1).hasTotal(3);
+		sqlStatementCounter.count(() -> mockMvc.perform(delete("/api/users/delete/" + user.getId())).andExpect(status().isOk()))
+			.hasSelects(1).hasUpdates(1).hasTotal(3);
+	}
+
+	@Test
+	@DisplayName("Bulk and import statements do not grow with the number of users")
+	public void setBasedBudget() throws Exception {
+		sqlStatementCounter.count(() -> mockMvc.perform(post("/api/users/bulk/lock").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"filter\":{\"role\":\"ROLE_USER\"}}")).andExpect(status().isOk()))
+			.hasSelects(1).hasUpdates(1).hasTotal(3);
+		sqlStatementCounter.count(() -> mockMvc.perform(post("/api/users/import").contentType("application/x-ndjson")
+				.content("{\"fullname\":\"Import One\",\"username\":\"import-one\",\"email\":\"import-one@mail.com\"}\n"
+						+ "{\"fullname\":\"Import Two\",\"username\":\"import-two\",\"email\":\"import-two@mail.com\"}\n"))
+				.andExpect(status().isOk()))
+			.hasSelects(1).hasInserts(2).hasTotal(3);
+	}
+
+	@Test
+	@DisplayName("Logout and token revocation write one row")
+	public void tokenBudget() throws Exception {
+		// Revoke first: the logout request below authenticates as the logged in user, who may not revoke
+		sqlStatementCounter.count(() -> mockMvc.perform(delete("/api/users/token/budget-token")).andExpect(status().isOk()))
+			.hasInserts(1).hasTotal(2);
+		String token = login().andReturn().getResponse().getHeader(JWT_TOKEN_HEADER);
+		sqlStatementCounter.count(() -> mockMvc.perform(post("/api/users/logout").header(AUTHORIZATION, TOKEN_PREFIX + token))
+				.andExpect(status().isOk()))
+			.hasInserts(1).hasTotal(2);
+	}
+
+	private ResultActions login() throws Exception {
+		return mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"username\":\"budget\",\"password\":\"password\"}"));
+	}
+}
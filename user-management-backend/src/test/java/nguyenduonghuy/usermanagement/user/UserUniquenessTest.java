@@ -0,0 +1,116 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.EMAIL_ALREADY_EXISTS;
+import static nguyenduonghuy.usermanagement.constant.UserServiceImplConstant.USERNAME_ALREADY_EXISTS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.exception.EmailExistException;
+import nguyenduonghuy.usermanagement.exception.UsernameExistException;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserService;
+
+@SpringBootTest
+public class UserUniquenessTest {
+
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private UserCacheService userCacheService;
+	@MockBean
+	private EmailService emailService;
+
+	private User existing;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		existing = userService.register("test01", "test01", "test01@mail.com");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		userRepository.deleteAll();
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@DisplayName("Register validates username and email with one query")
+	public void canRegisterWithSingleRead() throws Exception {
+		// given
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		// when
+		User user = userService.register("test02", "test02", "test02@mail.com");
+		// then
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(user.getUsernameKey()).isEqualTo("test02");
+	}
+
+	@Test
+	@DisplayName("Username and email are unique regardless of case")
+	public void cannotRegisterCaseVariant() {
+		assertThatThrownBy(() -> userService.register("test02", " TEST01 ", "test02@mail.com"))
+			.isInstanceOf(UsernameExistException.class)
+			.hasMessage(USERNAME_ALREADY_EXISTS);
+		assertThatThrownBy(() -> userService.register("test02", "test02", "Test01@Mail.com"))
+			.isInstanceOf(EmailExistException.class)
+			.hasMessage(EMAIL_ALREADY_EXISTS);
+	}
+
+	@Test
+	@DisplayName("Update relies on the unique constraint and maps the violation")
+	public void cannotUpdateToTakenEmail() throws Exception {
+		// given
+		User other = userService.register("test02", "test02", "test02@mail.com");
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		// when & then
+		assertThatThrownBy(() -> userService.update(other.getId(), null, "test02", "test02", "TEST01@mail.com", "ROLE_USER", true, true, null))
+			.isInstanceOf(EmailExistException.class)
+			.hasMessage(EMAIL_ALREADY_EXISTS);
+		assertThatThrownBy(() -> userService.update(other.getId(), null, "test02", "Test01", "test02@mail.com", "ROLE_USER", true, true, null))
+			.isInstanceOf(UsernameExistException.class)
+			.hasMessage(USERNAME_ALREADY_EXISTS);
+		assertThat(statistics.getQueryExecutionCount()).isZero();
+		assertThat(statistics.getEntityLoadCount()).isEqualTo(2);
+		assertThat(userRepository.findById(other.getId()).get().getEmail()).isEqualTo("test02@mail.com");
+	}
+
+	@Test
+	@DisplayName("Update can keep its own username and email")
+	public void canUpdateKeepingOwnKeys() throws Exception {
+		// when
+		User user = userService.update(existing.getId(), null, "renamed", "Test01", "test01@mail.com", "ROLE_USER", true, true, null);
+		// then
+		assertThat(user.getFullname()).isEqualTo("renamed");
+		assertThat(userRepository.findById(existing.getId()).get().getUsernameKey()).isEqualTo("test01");
+	}
+
+	@Test
+	@DisplayName("Inserts that bypass validation are still rejected by the constraint")
+	public void cannotBypassConstraint() {
+		assertThatThrownBy(() -> userRepository.saveAndFlush(new User("test02", "TEST01", "test02@mail.com")))
+			.isInstanceOf(DataIntegrityViolationException.class);
+	}
+}
@@ -0,0 +1,159 @@
+package nguyenduonghuy.usermanagement.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import nguyenduonghuy.usermanagement.domain.User;
+import nguyenduonghuy.usermanagement.domain.UserPrincipal;
+import nguyenduonghuy.usermanagement.enumeration.Role;
+import nguyenduonghuy.usermanagement.repository.UserRepository;
+import nguyenduonghuy.usermanagement.service.EmailService;
+import nguyenduonghuy.usermanagement.service.UserCacheService;
+import nguyenduonghuy.usermanagement.service.UserService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserVersionTest {
+
+	private static final String UPDATE_BODY = "{\"fullname\":\"Renamed\",\"username\":\"versioned\",\"email\":\"versioned@mail.com\","
+			+ "\"role\":\"ROLE_USER\",\"isActive\":true,\"isNotLocked\":true}";
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private UserCacheService userCacheService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private UserDetailsPasswordService userDetailsPasswordService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@MockBean
+	private EmailService emailService;
+
+	private Long id;
+
+	@BeforeEach
+	public void setUp() {
+		User user = new User("Versioned User", "versioned", "versioned@mail.com");
+		user.setRole(Role.ROLE_USER.name());
+		user.setActive(true);
+		user.setNotLocked(true);
+		id = userRepository.save(user).getId();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		jdbcTemplate.update("delete from user");
+		userCacheService.evictAll();
+	}
+
+	@Test
+	@WithMockUser
+	@DisplayName("Detail revalidation answers 304 from a version-only query")
+	public void canRevalidateDetail() throws Exception {
+		// given
+		String etag = "\"" + id + ".0\"";
+		mockMvc.perform(get("/api/users/find/versioned"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(jsonPath("$.version").value(0));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		// when & then
+		mockMvc.perform(get("/api/users/find/versioned").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, etag))
+			.andExpect(content().string(""));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		jdbcTemplate.update("update user set fullname = 'Changed', version = version + 1 where id = ?", id);
+		mockMvc.perform(get("/api/users/find/versioned").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"" + id + ".1\""))
+			.andExpect(jsonPath("$.fullname").value("Changed"));
+	}
+
+	@Test
+	@WithMockUser
+	@DisplayName("Update with a stale or foreign If-Match fails fast and changes nothing")
+	public void cannotUpdateWithStaleEtag() throws Exception {
+		// given
+		jdbcTemplate.update("update user set version = version + 1 where id = ?", id);
+		// when & then
+		mockMvc.perform(put("/api/users/update/" + id).contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY)
+				.header(HttpHeaders.IF_MATCH, "\"" + id + ".0\""))
+			.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(put("/api/users/update/" + id).contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY)
+				.header(HttpHeaders.IF_MATCH, "\"" + (id + 1) + ".1\""))
+			.andExpect(status().isPreconditionFailed());
+		assertThat(userRepository.findById(id).get().getFullname()).isEqualTo("Versioned User");
+		mockMvc.perform(put("/api/users/update/" + id).contentType(MediaType.APPLICATION_JSON).content(UPDATE_BODY)
+				.header(HttpHeaders.IF_MATCH, "\"" + id + ".1\""))
+			.andExpect(status().isCreated())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"" + id + ".2\""));
+		assertThat(userRepository.findById(id).get().getFullname()).isEqualTo("Renamed");
+	}
+
+	@Test
+	@WithMockUser(authorities = { "user:update", "user:delete" })
+	@DisplayName("List pages are revalidated and change with set-based writes")
+	public void canRevalidatePage() throws Exception {
+		// given
+		String etag = mockMvc.perform(get("/api/users"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		// when & then
+		mockMvc.perform(get("/api/users").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+		mockMvc.perform(post("/api/users/bulk/lock").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[" + id + "]}"))
+			.andExpect(status().isOk());
+		mockMvc.perform(get("/api/users").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.users[0].version").value(1));
+	}
+
+	@Test
+	@DisplayName("Password rehash and delete bump the version")
+	public void canBumpVersionOnSetBasedWrites() throws Exception {
+		// when
+		userDetailsPasswordService.updatePassword(new UserPrincipal(userRepository.findByUsername("versioned")), "rehashed");
+		Long rehashed = versionOf(id);
+		userService.delete(id);
+		// then
+		assertThat(rehashed).isEqualTo(1L);
+		assertThat(versionOf(id)).isEqualTo(2L);
+	}
+
+	private Long versionOf(Long id) {
+		return jdbcTemplate.queryForObject("select version from user where id = ?", Long.class, id);
+	}
+}